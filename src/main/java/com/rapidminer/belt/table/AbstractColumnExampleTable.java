@@ -0,0 +1,466 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.AttributeRole;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SimpleExampleSet;
+import com.rapidminer.example.table.DataRow;
+import com.rapidminer.example.table.DataRowFactory;
+import com.rapidminer.example.table.DataRowReader;
+import com.rapidminer.example.table.ExampleTable;
+import com.rapidminer.example.table.internal.CleanableExampleTable;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.error.AttributeNotFoundError;
+import com.rapidminer.tools.Tools;
+import com.rapidminer.tools.att.AttributeSet;
+
+
+/**
+ * {@link ExampleTable} that stores one {@link LegacyColumn} per attribute. Subclasses decide how the columns store
+ * their values.
+ *
+ * <p>Added columns are filled with {@code 0}. Attributes are added into the first hole left by a removed attribute
+ * before they are added at the end, as for other example tables. Adding and removing attributes creates new arrays
+ * so that rows can be read and written concurrently.
+ *
+ * @since 1.0.2
+ */
+abstract class AbstractColumnExampleTable implements CleanableExampleTable {
+
+	private static final long serialVersionUID = 6870514125786373404L;
+
+	/**
+	 * the attributes by table index, {@code null} for removed attributes
+	 */
+	private volatile Attribute[] attributes;
+
+	/**
+	 * the columns by table index, {@code null} for removed attributes
+	 */
+	private volatile LegacyColumn[] columns;
+
+	/**
+	 * the number of rows
+	 */
+	private final int height;
+
+	/**
+	 * Creates a new table with a column for every attribute created by {@link #newColumn(Attribute, int)}. The table
+	 * index of every attribute is set to its position in the list.
+	 *
+	 * @param attributeList
+	 * 		the attributes of the table
+	 * @param height
+	 * 		the number of rows
+	 */
+	AbstractColumnExampleTable(List<Attribute> attributeList, int height) {
+		this.height = height;
+		Attribute[] newAttributes = new Attribute[attributeList.size()];
+		LegacyColumn[] newColumns = new LegacyColumn[newAttributes.length];
+		for (int i = 0; i < newAttributes.length; i++) {
+			Attribute attribute = attributeList.get(i);
+			attribute.setTableIndex(i);
+			newAttributes[i] = attribute;
+			newColumns[i] = newColumn(attribute, height);
+		}
+		this.attributes = newAttributes;
+		this.columns = newColumns;
+	}
+
+	/**
+	 * Creates a table from the given arrays, used for {@link #columnCleanupClone(Attributes)}.
+	 */
+	AbstractColumnExampleTable(Attribute[] attributes, LegacyColumn[] columns, int height) {
+		this.attributes = attributes;
+		this.columns = columns;
+		this.height = height;
+	}
+
+	/**
+	 * Creates a new column filled with {@code 0} for the attribute.
+	 *
+	 * @param attribute
+	 * 		the attribute that is added
+	 * @param height
+	 * 		the number of rows
+	 * @return a new column
+	 */
+	abstract LegacyColumn newColumn(Attribute attribute, int height);
+
+	/**
+	 * Creates a table of the same kind from the given arrays.
+	 *
+	 * @param attributes
+	 * 		the attributes by table index
+	 * @param columns
+	 * 		the columns by table index
+	 * @param height
+	 * 		the number of rows
+	 * @return a new table sharing the columns
+	 */
+	abstract AbstractColumnExampleTable newTable(Attribute[] attributes, LegacyColumn[] columns, int height);
+
+	@Override
+	public int size() {
+		return height;
+	}
+
+	@Override
+	public DataRowReader getDataRowReader() {
+		return new DataRowReader() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < height;
+			}
+
+			@Override
+			public DataRow next() {
+				return getDataRow(index++);
+			}
+		};
+	}
+
+	@Override
+	public DataRow getDataRow(int rowIndex) {
+		return new DataRow() {
+
+			@Override
+			protected double get(int columnIndex, double defaultValue) {
+				return columns[columnIndex].get(rowIndex);
+			}
+
+			@Override
+			protected void set(int columnIndex, double value, double defaultValue) {
+				columns[columnIndex].set(rowIndex, value);
+			}
+
+			@Override
+			protected void ensureNumberOfColumns(int i) {
+				//not necessary, columns are created when the attribute is added
+			}
+
+			@Override
+			public int getType() {
+				return DataRowFactory.TYPE_COLUMN_VIEW;
+			}
+
+			@Override
+			public String toString() {
+				LegacyColumn[] columnsRef = columns;
+				StringJoiner result = new StringJoiner(",");
+				for (LegacyColumn column : columnsRef) {
+					if (column != null) {
+						result.add("" + column.get(rowIndex));
+					}
+				}
+				return result.toString();
+			}
+		};
+	}
+
+	@Override
+	public synchronized void addAttributes(Collection<Attribute> collection) {
+		for (Attribute attribute : collection) {
+			addAttribute(attribute);
+		}
+	}
+
+	@Override
+	public int addAttribute(Attribute attribute) {
+		if (attribute == null) {
+			throw new IllegalArgumentException("Attribute must not be null");
+		}
+		return addColumn(attribute, newColumn(attribute, height));
+	}
+
+	/**
+	 * Adds the attribute together with an existing column, at the first unused table index.
+	 *
+	 * @param attribute
+	 * 		the attribute to add, its table index is set
+	 * @param column
+	 * 		the column containing the values for the attribute
+	 * @return the table index of the attribute
+	 */
+	synchronized int addColumn(Attribute attribute, LegacyColumn column) {
+		Attribute[] attributesRef = attributes;
+		int index = 0;
+		while (index < attributesRef.length && attributesRef[index] != null) {
+			index++;
+		}
+		Attribute[] newAttributes = Arrays.copyOf(attributesRef, Math.max(attributesRef.length, index + 1));
+		LegacyColumn[] newColumns = Arrays.copyOf(columns, newAttributes.length);
+		attribute.setTableIndex(index);
+		newAttributes[index] = attribute;
+		newColumns[index] = column;
+		// columns first so that every attribute that can be seen has a column
+		columns = newColumns;
+		attributes = newAttributes;
+		return index;
+	}
+
+	/**
+	 * @param index
+	 * 		the table index
+	 * @return the column at the table index or {@code null} if there is no attribute at the index
+	 */
+	LegacyColumn getColumn(int index) {
+		return columns[index];
+	}
+
+	/**
+	 * Puts the attribute together with an existing column at the table index of the attribute. The index must not be
+	 * used by another attribute.
+	 *
+	 * @param attribute
+	 * 		the attribute with the table index to use
+	 * @param column
+	 * 		the column containing the values for the attribute
+	 * @throws IllegalArgumentException
+	 * 		if the index is already used
+	 */
+	synchronized void setColumn(Attribute attribute, LegacyColumn column) {
+		int index = attribute.getTableIndex();
+		Attribute[] attributesRef = attributes;
+		if (index < attributesRef.length && attributesRef[index] != null) {
+			throw new IllegalArgumentException("Table index " + index + " is already used");
+		}
+		Attribute[] newAttributes = Arrays.copyOf(attributesRef, Math.max(attributesRef.length, index + 1));
+		LegacyColumn[] newColumns = Arrays.copyOf(columns, newAttributes.length);
+		newAttributes[index] = attribute;
+		newColumns[index] = column;
+		columns = newColumns;
+		attributes = newAttributes;
+	}
+
+	/**
+	 * Replaces the columns at the table indices of the non-{@code null} replacements. The attributes at these indices
+	 * are kept.
+	 *
+	 * @param replacements
+	 * 		the new columns by table index, {@code null} for columns to keep
+	 */
+	synchronized void replaceColumns(LegacyColumn[] replacements) {
+		LegacyColumn[] newColumns = columns.clone();
+		for (int i = 0; i < replacements.length && i < newColumns.length; i++) {
+			if (replacements[i] != null && newColumns[i] != null) {
+				newColumns[i] = replacements[i];
+			}
+		}
+		columns = newColumns;
+	}
+
+	/**
+	 * Extends the table by unused table indices so that it has at least the given number of attributes.
+	 *
+	 * @param numberOfAttributes
+	 * 		the minimal value for {@link #getNumberOfAttributes()}
+	 */
+	synchronized void ensureNumberOfAttributes(int numberOfAttributes) {
+		if (attributes.length < numberOfAttributes) {
+			LegacyColumn[] newColumns = Arrays.copyOf(columns, numberOfAttributes);
+			Attribute[] newAttributes = Arrays.copyOf(attributes, numberOfAttributes);
+			columns = newColumns;
+			attributes = newAttributes;
+		}
+	}
+
+	@Override
+	public void removeAttribute(Attribute attribute) {
+		removeAttribute(attribute.getTableIndex());
+	}
+
+	/**
+	 * Removes the attribute and releases its column, see {@link LegacyColumn#release()}.
+	 */
+	@Override
+	public synchronized void removeAttribute(int i) {
+		Attribute[] newAttributes = attributes.clone();
+		LegacyColumn[] newColumns = columns.clone();
+		LegacyColumn removed = newColumns[i];
+		newAttributes[i] = null;
+		newColumns[i] = null;
+		attributes = newAttributes;
+		columns = newColumns;
+		if (removed != null) {
+			removed.release();
+		}
+	}
+
+	@Override
+	public Attribute[] getAttributes() {
+		return attributes.clone();
+	}
+
+	@Override
+	public Attribute getAttribute(int i) {
+		return attributes[i];
+	}
+
+	/**
+	 * @return the current array of attributes by table index without copying it, must not be changed. The array is
+	 * replaced whenever attributes are added or removed.
+	 */
+	Attribute[] getAttributeArray() {
+		return attributes;
+	}
+
+	@Override
+	public Attribute findAttribute(String name) throws OperatorException {
+		if (name == null) {
+			return null;
+		}
+		for (Attribute attribute : attributes) {
+			if (attribute != null && attribute.getName().equals(name)) {
+				return attribute;
+			}
+		}
+		throw new AttributeNotFoundError(null, null, name);
+	}
+
+	@Override
+	public int getNumberOfAttributes() {
+		return attributes.length;
+	}
+
+	@Override
+	public int getAttributeCount() {
+		int count = 0;
+		for (Attribute attribute : attributes) {
+			if (attribute != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// the following 6 methods are the same as in {@link AbstractExampleTable}
+	@Override
+	public ExampleSet createExampleSet(Attribute labelAttribute) {
+		return createExampleSet(labelAttribute, null, null);
+	}
+
+	@Override
+	public ExampleSet createExampleSet(Iterator<AttributeRole> newSpecialAttributes) {
+		Map<Attribute, String> specialAttributes = new LinkedHashMap<>();
+		while (newSpecialAttributes.hasNext()) {
+			AttributeRole role = newSpecialAttributes.next();
+			specialAttributes.put(role.getAttribute(), role.getSpecialName());
+		}
+		return new SimpleExampleSet(this, specialAttributes);
+	}
+
+	@Override
+	public ExampleSet createExampleSet(Attribute labelAttribute, Attribute weightAttribute, Attribute idAttribute) {
+		Map<Attribute, String> specialAttributes = new LinkedHashMap<>();
+		if (labelAttribute != null) {
+			specialAttributes.put(labelAttribute, Attributes.LABEL_NAME);
+		}
+		if (weightAttribute != null) {
+			specialAttributes.put(weightAttribute, Attributes.WEIGHT_NAME);
+		}
+		if (idAttribute != null) {
+			specialAttributes.put(idAttribute, Attributes.ID_NAME);
+		}
+		return new SimpleExampleSet(this, specialAttributes);
+	}
+
+	@Override
+	public ExampleSet createExampleSet(AttributeSet attributeSet) {
+		Map<Attribute, String> specialAttributes = new LinkedHashMap<>();
+		Iterator<String> i = attributeSet.getSpecialNames().iterator();
+		while (i.hasNext()) {
+			String name = i.next();
+			specialAttributes.put(attributeSet.getSpecialAttribute(name), name);
+		}
+		return createExampleSet(specialAttributes);
+	}
+
+	@Override
+	public ExampleSet createExampleSet(Map<Attribute, String> map) {
+		return new SimpleExampleSet(this, map);
+	}
+
+	@Override
+	public ExampleSet createExampleSet() {
+		return createExampleSet(Collections.<Attribute, String>emptyMap());
+	}
+
+	@Override
+	public String toString() {
+		return "ExampleTable, " + getNumberOfAttributes() + " attributes, " + size() + " data rows," + Tools.getLineSeparator()
+				+ "attributes: " + Arrays.toString(getAttributes());
+	}
+
+	@Override
+	public String toDataString() {
+		StringBuilder result = new StringBuilder(toString() + Tools.getLineSeparator());
+		DataRowReader reader = getDataRowReader();
+		while (reader.hasNext()) {
+			result.append(reader.next().toString()).append(Tools.getLineSeparator());
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Creates a table that shares the columns for the given attributes and keeps their table indices. The shared
+	 * columns are retained for the new table, see {@link LegacyColumn#retain()}. The columns of all other attributes
+	 * are not referenced by the new table.
+	 */
+	@Override
+	public AbstractColumnExampleTable columnCleanupClone(Attributes attributes) {
+		Attribute[] attributesRef;
+		LegacyColumn[] columnsRef;
+		synchronized (this) {
+			attributesRef = this.attributes;
+			columnsRef = this.columns;
+		}
+		Attribute[] newAttributes = new Attribute[attributesRef.length];
+		LegacyColumn[] newColumns = new LegacyColumn[attributesRef.length];
+		int maxIndex = -1;
+		for (Iterator<Attribute> allIterator = attributes.allAttributes(); allIterator.hasNext(); ) {
+			int index = allIterator.next().getTableIndex();
+			if (index >= 0 && index < attributesRef.length && attributesRef[index] != null) {
+				if (newColumns[index] == null) {
+					newAttributes[index] = attributesRef[index];
+					newColumns[index] = columnsRef[index];
+					newColumns[index].retain();
+				}
+				maxIndex = Math.max(maxIndex, index);
+			}
+		}
+		return newTable(Arrays.copyOf(newAttributes, maxIndex + 1), Arrays.copyOf(newColumns, maxIndex + 1), height);
+	}
+
+}
@@ -20,13 +20,17 @@ package com.rapidminer.belt.table;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.rapidminer.belt.column.CategoricalColumn;
 import com.rapidminer.belt.column.Column;
 import com.rapidminer.belt.column.ColumnType;
 import com.rapidminer.belt.reader.NumericReader;
+import com.rapidminer.belt.reader.SmallReaders;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Attributes;
 import com.rapidminer.operator.OperatorException;
@@ -48,9 +52,85 @@ abstract class AbstractTableAccessor {
 
 	private static final String EMPTY_STRING = "";
 
+	/**
+	 * value code for columns that are read as they are
+	 */
+	static final byte NUMERIC = 0;
+
+	/**
+	 * value code for nominal columns whose category indices are shifted by {@code 1} in belt
+	 */
+	static final byte NOMINAL_SHIFT = 1;
+
+	/**
+	 * value code for time columns whose nanoseconds of the day are converted to legacy time
+	 */
+	static final byte TIME = 2;
+
+	/**
+	 * value code for date-time columns that are read as objects
+	 */
+	static final byte DATETIME = 3;
+
+	/**
+	 * value code for advanced columns that are always read as {@code 0}
+	 */
+	static final byte ADVANCED = 4;
+
+	/**
+	 * system property for the fraction of the maximal heap that all accessors together may use for copies of the
+	 * column values that serve random access, see {@link #getNumericValue(int, int, LazyNumericReaders, int)}. The
+	 * copies are filled from the belt columns on the first random read of a column, so they cost the memory of a whole
+	 * column each. {@code 0} disables them.
+	 */
+	static final String PROPERTY_DIRECT_ACCESS_MEMORY = "rapidminer.belt.convert_on_write.direct_access_memory";
+
+	/**
+	 * the fraction of the maximal heap used if the system property is not set or invalid
+	 */
+	static final double DEFAULT_DIRECT_ACCESS_MEMORY = 0.1;
+
+	/**
+	 * marks columns that are read with readers since there is no copy of their values
+	 */
+	private static final double[] NO_DIRECT_VALUES = new double[0];
+
 	protected final Table table;
-	private final List<Attribute> attributes;
-	private final int unusedAttributes;
+	/**
+	 * the attributes by column index, {@code null} for unused columns. The list is replaced when an attribute is
+	 * removed, it is never changed.
+	 */
+	private volatile List<Attribute> attributes;
+	private volatile int unusedAttributes;
+
+	/**
+	 * the attributes by the name they had when the index was built, replaced together with {@link #attributes}
+	 */
+	private volatile Map<String, Attribute> attributesByName;
+
+	/**
+	 * remappings for nominal columns with dictionary gaps or boolean dictionaries that do not have the negative value
+	 * first, {@code null} for all other columns
+	 */
+	private final DictionaryRemapping[] remappings;
+
+	/**
+	 * how to read the values of every column, one of {@link #NUMERIC}, {@link #NOMINAL_SHIFT}, {@link #TIME}, {@link
+	 * #DATETIME} and {@link #ADVANCED}. Precomputed so that reading a value needs no attribute lookup.
+	 */
+	private final byte[] valueCodes;
+
+	/**
+	 * copies of the column values for random access, created on the first random read of a column. {@link
+	 * #NO_DIRECT_VALUES} for columns that are read with readers. {@code null} if the copies are disabled.
+	 */
+	private final AtomicReferenceArray<double[]> directValues;
+
+	/**
+	 * the number of bytes all accessors together may use for copies, read from the {@link
+	 * #PROPERTY_DIRECT_ACCESS_MEMORY} on creation
+	 */
+	private final long directAccessBudget;
 
 	/**
 	 * Creates a new accessor for a belt table.
@@ -64,8 +144,118 @@ abstract class AbstractTableAccessor {
 	 */
 	AbstractTableAccessor(Table table, List<Attribute> attributes, int unusedAttributes) {
 		this.attributes = attributes;
+		this.attributesByName = indexByName(attributes);
 		this.table = table;
 		this.unusedAttributes = unusedAttributes;
+		this.remappings = DictionaryRemapping.of(table);
+		this.valueCodes = valueCodes(table, attributes);
+		this.directAccessBudget = (long) (directAccessMemory() * Runtime.getRuntime().maxMemory());
+		this.directValues = directAccessBudget > 0 ? new AtomicReferenceArray<>(table.width()) : null;
+	}
+
+	/**
+	 * Determines the value codes from the belt column types and the legacy value types of the attributes.
+	 */
+	private static byte[] valueCodes(Table table, List<Attribute> attributes) {
+		byte[] codes = new byte[table.width()];
+		for (int i = 0; i < codes.length; i++) {
+			Column.TypeId typeId = table.column(i).type().id();
+			Attribute attribute = attributes.get(i);
+			if (!BeltConverter.STANDARD_TYPES.contains(typeId)) {
+				codes[i] = ADVANCED;
+			} else if (typeId == Column.TypeId.DATE_TIME) {
+				codes[i] = DATETIME;
+			} else if (attribute == null) {
+				// unused columns are never read
+				codes[i] = NUMERIC;
+			} else if (attribute.isNominal()) {
+				codes[i] = NOMINAL_SHIFT;
+			} else if (attribute.getValueType() == Ontology.TIME) {
+				codes[i] = TIME;
+			} else {
+				codes[i] = NUMERIC;
+			}
+		}
+		return codes;
+	}
+
+	/**
+	 * @param columnIndex
+	 * 		the index of the column
+	 * @return how to read the values of the column, one of {@link #NUMERIC}, {@link #NOMINAL_SHIFT}, {@link #TIME},
+	 * {@link #DATETIME} and {@link #ADVANCED}
+	 */
+	byte getValueCode(int columnIndex) {
+		return valueCodes[columnIndex];
+	}
+
+	/**
+	 * Creates the index of the attributes by name, the first attribute wins for duplicate names. Attributes renamed
+	 * later are not found by the index.
+	 */
+	static Map<String, Attribute> indexByName(List<Attribute> attributes) {
+		Map<String, Attribute> byName = new HashMap<>();
+		for (Attribute attribute : attributes) {
+			if (attribute != null) {
+				byName.putIfAbsent(attribute.getName(), attribute);
+			}
+		}
+		return byName;
+	}
+
+	/**
+	 * Numeric readers for a list of columns that are created the first time a column is read, so that setting up the
+	 * readers for a row only costs for the columns that are actually read. Must only be used by one thread.
+	 */
+	static final class LazyNumericReaders {
+
+		private final List<Column> columns;
+		private final NumericReader[] readers;
+		private final boolean buffered;
+
+		/**
+		 * Creates readers for the given columns.
+		 *
+		 * @param columns
+		 * 		the columns to read
+		 * @param buffered
+		 * 		whether to create buffered readers for reading the whole table or unbuffered ones for single rows
+		 */
+		LazyNumericReaders(List<Column> columns, boolean buffered) {
+			this.columns = columns;
+			this.readers = new NumericReader[columns.size()];
+			this.buffered = buffered;
+		}
+
+		/**
+		 * @return whether the readers are buffered for reading the whole table
+		 */
+		boolean isBuffered() {
+			return buffered;
+		}
+
+		/**
+		 * Returns the reader for the column at the given index, creating it on the first call.
+		 *
+		 * @param index
+		 * 		the index of the column in the list
+		 * @return the reader or {@code null} for advanced columns
+		 */
+		NumericReader get(int index) {
+			NumericReader reader = readers[index];
+			if (reader == null) {
+				Column column = columns.get(index);
+				// ignore the advanced columns, will always return {@code 0} for them, see {@link #getNumericValue}
+				if (BeltConverter.STANDARD_TYPES.contains(column.type().id())) {
+					// use a small numeric reader instead of a normal one to lower the memory consumption by multiple
+					// readers
+					reader = buffered ? SmallReaders.smallNumericReader(column) :
+							SmallReaders.unbufferedNumericReader(column);
+					readers[index] = reader;
+				}
+			}
+			return reader;
+		}
 	}
 
 	/**
@@ -127,48 +317,157 @@ abstract class AbstractTableAccessor {
 		if (name == null) {
 			return null;
 		}
-		for (Attribute att : attributes) {
+		Attribute attribute = getAttribute(name);
+		if (attribute == null) {
+			throw new AttributeNotFoundError(null, null, name);
+		}
+		return attribute;
+	}
+
+	/**
+	 * Returns the attribute with the given name using the name index. The attributes are only searched if the name is
+	 * not in the index, i.e. if there is no attribute with the name or if an attribute was renamed after the index
+	 * was built. In the latter case, the index is rebuilt so that the next lookup of the new name is a hit again.
+	 *
+	 * @param name
+	 * 		the name of the attribute
+	 * @return the attribute or {@code null} if there is none with the name
+	 */
+	Attribute getAttribute(String name) {
+		Attribute indexed = attributesByName.get(name);
+		if (indexed != null && indexed.getName().equals(name)) {
+			return indexed;
+		}
+		List<Attribute> attributesRef = attributes;
+		for (Attribute att : attributesRef) {
 			if (att != null && att.getName().equals(name)) {
+				reindex(attributesRef);
 				return att;
 			}
 		}
-		throw new AttributeNotFoundError(null, null, name);
+		return null;
+	}
+
+	/**
+	 * Rebuilds the name index after an attribute was renamed, unless the attributes were replaced in the meantime.
+	 */
+	private synchronized void reindex(List<Attribute> attributesRef) {
+		if (attributes == attributesRef) {
+			attributesByName = indexByName(attributesRef);
+		}
 	}
 
 	/**
-	 * Gets the numeric value given a row and column index and a numeric reader. Shared code used in {@link
-	 * NumericTableAccessor} and {@link MixedTableAccessor}.
+	 * @return the current list of attributes by column index, must not be changed
+	 */
+	List<Attribute> getAttributeList() {
+		return attributes;
+	}
+
+	/**
+	 * Gets the numeric value given a row and column index and the lazy readers. Shared code used in {@link
+	 * NumericTableAccessor} and {@link MixedTableAccessor}. Random access with unbuffered readers reads from a copy of
+	 * the column values if the {@link #PROPERTY_DIRECT_ACCESS_MEMORY} allows it, since repositioning a reader for every
+	 * value is much slower than an array access.
 	 *
 	 * @param rowIndex
 	 * 		the row index
 	 * @param columnIndex
 	 * 		the column index
-	 * @param reader
-	 * 		the reader to use
+	 * @param readers
+	 * 		the readers to use
+	 * @param readerIndex
+	 * 		the index of the column in the readers
 	 * @return the value at the specified position
 	 */
-	protected double getNumericValue(int rowIndex, int columnIndex, NumericReader reader) {
+	protected double getNumericValue(int rowIndex, int columnIndex, LazyNumericReaders readers, int readerIndex) {
+		byte valueCode = valueCodes[columnIndex];
 		// always return {@code 0} for advanced columns
-		if (reader == null) {
+		if (valueCode == ADVANCED) {
 			return 0;
 		}
+		if (directValues != null && !readers.isBuffered()) {
+			double[] values = getDirectValues(columnIndex);
+			if (values != null) {
+				return toLegacyValue(columnIndex, valueCode, values[rowIndex]);
+			}
+		}
+		NumericReader reader = readers.get(readerIndex);
 		// set the position only if not already at the right position
 		if (reader.position() != rowIndex - 1) {
 			reader.setPosition(rowIndex - 1);
 		}
-		// need to subtract {@code 1} in case of nominal attributes because of the shifted mapping in belt
-		Attribute attribute = getAttribute(columnIndex);
-		if (attribute.isNominal()) {
-			return reader.read() - 1;
-		} else if (attribute.getValueType() == Ontology.TIME) {
-			double read = reader.read();
-			if (Double.isNaN(read)) {
-				return read;
+		return toLegacyValue(columnIndex, valueCode, reader.read());
+	}
+
+	/**
+	 * Converts the value read from the belt column into the legacy value.
+	 */
+	private double toLegacyValue(int columnIndex, byte valueCode, double value) {
+		switch (valueCode) {
+			case NOMINAL_SHIFT:
+				// need to subtract {@code 1} in case of nominal attributes because of the shifted mapping in belt
+				DictionaryRemapping remapping = remappings[columnIndex];
+				if (remapping != null) {
+					return remapping.remapShifted(value);
+				}
+				return value - 1;
+			case TIME:
+				if (Double.isNaN(value)) {
+					return value;
+				}
+				return BeltConverter.nanoOfDayToLegacyTime((long) value);
+			default:
+				return value;
+		}
+	}
+
+	/**
+	 * Returns the copy of the values of the column, creating it if the global {@link DirectAccessBudget} allows it.
+	 * The copy is only read and shared by all threads since belt columns are immutable.
+	 *
+	 * @return the values or {@code null} if the column must be read with a reader
+	 */
+	private double[] getDirectValues(int columnIndex) {
+		double[] values = directValues.get(columnIndex);
+		if (values == null) {
+			long bytes = (long) table.height() * Double.BYTES;
+			values = NO_DIRECT_VALUES;
+			if (valueCodes[columnIndex] != DATETIME && DirectAccessBudget.reserve(bytes, directAccessBudget)) {
+				values = new double[table.height()];
+				table.column(columnIndex).fill(values, 0);
+			}
+			if (directValues.compareAndSet(columnIndex, null, values)) {
+				if (values != NO_DIRECT_VALUES) {
+					DirectAccessBudget.register(values);
+				}
+			} else {
+				// another thread created the copy in the meantime
+				if (values != NO_DIRECT_VALUES) {
+					DirectAccessBudget.cancel(bytes);
+				}
+				values = directValues.get(columnIndex);
+			}
+		}
+		return values == NO_DIRECT_VALUES ? null : values;
+	}
+
+	/**
+	 * Reads the {@link #PROPERTY_DIRECT_ACCESS_MEMORY}.
+	 */
+	private static double directAccessMemory() {
+		String property = System.getProperty(PROPERTY_DIRECT_ACCESS_MEMORY);
+		if (property != null) {
+			try {
+				double parsed = Double.parseDouble(property);
+				if (parsed >= 0 && parsed <= 1) {
+					return parsed;
+				}
+			} catch (NumberFormatException e) {
+				// use the default fraction
 			}
-			return BeltConverter.nanoOfDayToLegacyTime((long)read);
-		} else {
-			return reader.read();
 		}
+		return DEFAULT_DIRECT_ACCESS_MEMORY;
 	}
 
 
@@ -233,4 +532,26 @@ abstract class AbstractTableAccessor {
 	int getUnused(){
 		return unusedAttributes;
 	}
+
+	/**
+	 * Marks the column at the given index as unused by replacing its attribute with {@code null}. The column itself
+	 * stays in the underlying table until the next {@link #columnCleanupClone(Attributes)}.
+	 *
+	 * @param columnIndex
+	 * 		the index of the column to remove
+	 */
+	synchronized void remove(int columnIndex) {
+		List<Attribute> attributesRef = attributes;
+		if (attributesRef.get(columnIndex) != null) {
+			List<Attribute> newAttributes = new ArrayList<>(attributesRef);
+			newAttributes.set(columnIndex, null);
+			attributesByName = indexByName(newAttributes);
+			attributes = newAttributes;
+			unusedAttributes++;
+			if (directValues != null) {
+				// drop the copy of the values, the column is not read anymore
+				directValues.set(columnIndex, NO_DIRECT_VALUES);
+			}
+		}
+	}
 }
\ No newline at end of file
@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -37,9 +38,13 @@ import com.rapidminer.belt.column.Dictionary;
 import com.rapidminer.belt.util.ColumnReference;
 import com.rapidminer.belt.util.ColumnRole;
 import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.HeaderExampleSet;
+import com.rapidminer.example.set.SimpleExampleSet;
+import com.rapidminer.example.table.ExampleTable;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.ParameterService;
 import com.rapidminer.tools.Tools;
@@ -218,6 +223,65 @@ public final class BeltConverter {
 		return FromTableConverter.convert(tableObject, context);
 	}
 
+	/**
+	 * Converts a belt {@link IOTable} into an {@link ExampleSet} that stores its values outside of the Java heap. Use
+	 * this for large tables that are kept for a long time so that they do not increase garbage collection pauses.
+	 *
+	 * @param tableObject
+	 * 		the table object to convert
+	 * @param context
+	 * 		the context to use for parallel execution
+	 * @return a new example set containing the values of the table
+	 * @throws IllegalArgumentException
+	 * 		if table or context is null
+	 * @throws ConversionException
+	 * 		if the table cannot be converted because it contains non-standard columns
+	 * @since 1.0.2
+	 */
+	public static ExampleSet convertOffHeap(IOTable tableObject, ConcurrencyContext context) {
+		return FromTableConverter.convertOffHeap(tableObject, context);
+	}
+
+	/**
+	 * Converts a belt {@link IOTable} into an {@link ExampleSet} that stores its values in the smallest fitting
+	 * primitive type, e.g. nominal values as bytes, instead of as doubles.
+	 *
+	 * @param tableObject
+	 * 		the table object to convert
+	 * @param context
+	 * 		the context to use for parallel execution
+	 * @return a new example set containing the values of the table
+	 * @throws IllegalArgumentException
+	 * 		if table or context is null
+	 * @throws ConversionException
+	 * 		if the table cannot be converted because it contains non-standard columns
+	 * @since 1.0.2
+	 */
+	public static ExampleSet convertCompact(IOTable tableObject, ConcurrencyContext context) {
+		return FromTableConverter.convertCompact(tableObject, context);
+	}
+
+	/**
+	 * Converts the belt {@link IOTable} in the holder into an {@link ExampleSet}. In contrast to {@link
+	 * #convert(IOTable, ConcurrencyContext)}, the holder is cleared and every belt column is released as soon as it
+	 * has been copied. Use this to reduce the peak memory consumption if the holder contains the only reference to the
+	 * table object. The table object itself is not changed.
+	 *
+	 * @param tableHolder
+	 * 		the holder of the table object to convert, is cleared unless the table cannot be converted
+	 * @param context
+	 * 		the context to use for parallel execution
+	 * @return a new example set containing the values of the table
+	 * @throws IllegalArgumentException
+	 * 		if the holder, the table or context is null
+	 * @throws ConversionException
+	 * 		if the table cannot be converted because it contains non-standard columns
+	 * @since 1.0.2
+	 */
+	public static ExampleSet convertAndRelease(AtomicReference<IOTable> tableHolder, ConcurrencyContext context) {
+		return FromTableConverter.convertAndRelease(tableHolder, context);
+	}
+
 	/**
 	 * Converts a table object into an example set sequentially in case no operator is known. If possible, {@link
 	 * #convert(IOTable, ConcurrencyContext)} should be preferred. Use the faster
@@ -350,6 +414,84 @@ public final class BeltConverter {
 		return ToTableConverter.getExampleTable(exampleSet) instanceof ConvertOnWriteExampleTable;
 	}
 
+	/**
+	 * Adds the attribute as a regular attribute to the example set and sets all its values at once. For example sets
+	 * created by {@link TableViewCreator#convertOnWriteView(IOTable, boolean)}, this is much faster than setting the
+	 * values example by example, and the values are not copied again when converting back to a belt table. The array
+	 * is not copied for numeric attributes, so it must not be changed afterwards.
+	 *
+	 * @param exampleSet
+	 * 		the example set to add the attribute to
+	 * @param attribute
+	 * 		the new attribute
+	 * @param values
+	 * 		the legacy values of the attribute, one for every example
+	 * @throws IllegalArgumentException
+	 * 		if the number of values does not match the size of the example set
+	 * @since 1.0.2
+	 */
+	public static void addColumn(ExampleSet exampleSet, Attribute attribute, double[] values) {
+		checkSize(exampleSet, values.length);
+		ExampleTable table = ToTableConverter.getExampleTable(exampleSet);
+		if (exampleSet instanceof SimpleExampleSet && table instanceof ConvertOnWriteExampleTable) {
+			((ConvertOnWriteExampleTable) table).addColumn(attribute, values);
+			exampleSet.getAttributes().addRegular(attribute);
+		} else {
+			addColumnByExample(exampleSet, attribute, TypedExampleTable.newTypedColumn(attribute, values));
+		}
+	}
+
+	/**
+	 * Adds the attribute as a regular attribute to the example set and sets the values of the belt column at once.
+	 * For example sets created by {@link TableViewCreator#convertOnWriteView(IOTable, boolean)}, this is much faster
+	 * than setting the values example by example, and the belt column is used as it is when converting back to a belt
+	 * table unless its values were changed. The values of nominal columns are added to the mapping of the attribute.
+	 *
+	 * @param exampleSet
+	 * 		the example set to add the attribute to
+	 * @param attribute
+	 * 		the new nominal or numeric attribute
+	 * @param column
+	 * 		a nominal column for a nominal attribute or a real or integer column for a numeric attribute
+	 * @throws IllegalArgumentException
+	 * 		if the size of the column does not match the size of the example set or if the column type does not match
+	 * 		the attribute
+	 * @since 1.0.2
+	 */
+	public static void addColumn(ExampleSet exampleSet, Attribute attribute, Column column) {
+		checkSize(exampleSet, column.size());
+		ExampleTable table = ToTableConverter.getExampleTable(exampleSet);
+		if (exampleSet instanceof SimpleExampleSet && table instanceof ConvertOnWriteExampleTable) {
+			((ConvertOnWriteExampleTable) table).addColumn(attribute, column);
+			exampleSet.getAttributes().addRegular(attribute);
+		} else {
+			addColumnByExample(exampleSet, attribute, TypedExampleTable.newTypedColumn(attribute, column));
+		}
+	}
+
+	/**
+	 * Checks that the given number of values matches the size of the example set.
+	 */
+	private static void checkSize(ExampleSet exampleSet, int length) {
+		if (length != exampleSet.size()) {
+			throw new IllegalArgumentException("Number of values " + length + " does not match number of examples " +
+					exampleSet.size());
+		}
+	}
+
+	/**
+	 * Adds the attribute to the example table and the example set and copies the values from the column example by
+	 * example.
+	 */
+	private static void addColumnByExample(ExampleSet exampleSet, Attribute attribute, LegacyColumn column) {
+		exampleSet.getExampleTable().addAttribute(attribute);
+		exampleSet.getAttributes().addRegular(attribute);
+		int row = 0;
+		for (Example example : exampleSet) {
+			example.setValue(attribute, column.get(row++));
+		}
+	}
+
 	/**
 	 * Converts belt roles to studio roles and adds them to the given Attributes. Duplicate roles will be made
 	 * unique by adding an index to them.
@@ -0,0 +1,523 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.belt.buffer.Buffers;
+import com.rapidminer.belt.buffer.DateTimeBuffer;
+import com.rapidminer.belt.buffer.TimeBuffer;
+import com.rapidminer.belt.column.BooleanDictionary;
+import com.rapidminer.belt.column.Column;
+import com.rapidminer.belt.column.ColumnType;
+import com.rapidminer.belt.column.Dictionary;
+import com.rapidminer.belt.reader.ObjectReader;
+import com.rapidminer.belt.reader.Readers;
+import com.rapidminer.belt.util.ColumnMetaData;
+import com.rapidminer.belt.util.IntegerFormats.Format;
+import com.rapidminer.belt.util.IntegerFormats.PackedIntegers;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+
+
+/**
+ * Writes the columns of a belt {@link Table} to an object stream in a columnar binary layout and reads them back into a
+ * new table. Used for the serialization of the belt backed example sets so that the table does not need to be
+ * converted into an example table first.
+ *
+ * <p>The labels and the column meta data are written first. Then every column is written as a type code, followed by
+ * the dictionary for nominal columns and the values in blocks of primitive data. Nominal category indices are stored
+ * in bytes or shorts if the dictionary is small enough. The blocks are encoded independently, so that they can be
+ * encoded in parallel, and streamed in order so that only a bounded number of encoded blocks is held in memory.
+ *
+ * @since 1.0.2
+ */
+final class ColumnarTableSerializer {
+
+	/**
+	 * the number of rows encoded into one block
+	 */
+	private static final int BLOCK_SIZE = 1 << 16;
+
+	/**
+	 * the number of blocks encoded in parallel before they are written
+	 */
+	private static final int BLOCKS_PER_ROUND = 32;
+
+	/**
+	 * marks a missing date-time or time value
+	 */
+	private static final long MISSING_TIME = Long.MIN_VALUE;
+
+	private static final byte TYPE_UNUSED = 0;
+	private static final byte TYPE_REAL = 1;
+	private static final byte TYPE_INTEGER = 2;
+	private static final byte TYPE_NOMINAL = 3;
+	private static final byte TYPE_DATE_TIME = 4;
+	private static final byte TYPE_TIME = 5;
+
+	/**
+	 * category indices of this maximal size are stored in one byte
+	 */
+	private static final int MAX_BYTE_CATEGORY = 0xFF;
+
+	/**
+	 * category indices of this maximal size are stored in two bytes
+	 */
+	private static final int MAX_SHORT_CATEGORY = 0xFFFF;
+
+	private ColumnarTableSerializer() {
+		throw new AssertionError("Utility class");
+	}
+
+	/**
+	 * Checks whether the table can be written, i.e. every column that is not skipped has a standard type.
+	 *
+	 * @param table
+	 * 		the table to check
+	 * @param skip
+	 * 		which columns are not written, can be {@code null}
+	 * @return whether {@link #write(Table, boolean[], ObjectOutputStream, ConcurrencyContext)} is possible
+	 */
+	static boolean canWrite(Table table, boolean[] skip) {
+		for (int i = 0; i < table.width(); i++) {
+			if ((skip == null || !skip[i]) && !BeltConverter.STANDARD_TYPES.contains(table.column(i).type().id())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the table. The values of skipped columns are not written, they are read back as a nominal column
+	 * containing only the empty string. If a context is given, the blocks of the columns are encoded in parallel, a
+	 * bounded number at a time, and written in order. Otherwise, they are encoded one after the other.
+	 *
+	 * @param table
+	 * 		the table to write, must only contain columns of the standard types where not skipped
+	 * @param skip
+	 * 		which columns are not written, can be {@code null}
+	 * @param out
+	 * 		the stream to write to
+	 * @param context
+	 * 		the context for encoding in parallel, can be {@code null}
+	 * @throws NotSerializableException
+	 * 		if the table contains meta data that is not serializable
+	 * @throws IOException
+	 * 		if writing fails
+	 */
+	static void write(Table table, boolean[] skip, ObjectOutputStream out, ConcurrencyContext context)
+			throws IOException {
+		int width = table.width();
+		out.writeInt(table.height());
+		out.writeInt(width);
+		out.writeObject(table.labelArray());
+		out.writeObject(metaData(table));
+		byte[] types = new byte[width];
+		for (int i = 0; i < width; i++) {
+			types[i] = skip != null && skip[i] ? TYPE_UNUSED : typeCode(table.column(i));
+		}
+		if (context == null) {
+			writeSequentially(table, types, out);
+		} else {
+			writeParallel(table, types, out, context);
+		}
+	}
+
+	/**
+	 * Writes the columns one after the other, encoding one block at a time.
+	 */
+	private static void writeSequentially(Table table, byte[] types, ObjectOutputStream out) throws IOException {
+		for (int i = 0; i < types.length; i++) {
+			Column column = table.column(i);
+			writeHeader(column, types[i], out);
+			if (types[i] != TYPE_UNUSED) {
+				for (int start = 0; start < column.size(); start += BLOCK_SIZE) {
+					out.write(encode(column, types[i], start));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Encodes rounds of {@link #BLOCKS_PER_ROUND} blocks of all columns in parallel and writes them in order together
+	 * with the column headers, so that at most one round of encoded blocks is held in memory.
+	 */
+	private static void writeParallel(Table table, byte[] types, ObjectOutputStream out, ConcurrencyContext context)
+			throws IOException {
+		int height = table.height();
+		int headers = 0;
+		List<Callable<byte[]>> encoders = new ArrayList<>(BLOCKS_PER_ROUND);
+		List<Integer> encodedColumns = new ArrayList<>(BLOCKS_PER_ROUND);
+		for (int i = 0; i < types.length; i++) {
+			if (types[i] == TYPE_UNUSED) {
+				continue;
+			}
+			Column column = table.column(i);
+			byte type = types[i];
+			for (int start = 0; start < height; start += BLOCK_SIZE) {
+				int blockStart = start;
+				encoders.add(() -> encode(column, type, blockStart));
+				encodedColumns.add(i);
+				if (encoders.size() == BLOCKS_PER_ROUND) {
+					headers = writeRound(table, types, headers, encoders, encodedColumns, out, context);
+				}
+			}
+		}
+		headers = writeRound(table, types, headers, encoders, encodedColumns, out, context);
+		for (int i = headers; i < types.length; i++) {
+			writeHeader(table.column(i), types[i], out);
+		}
+	}
+
+	/**
+	 * Encodes the blocks in parallel and writes them in order. Before every block of a new column, the headers up to
+	 * this column are written. Clears the lists afterwards.
+	 *
+	 * @return the index of the first column whose header was not written yet
+	 */
+	private static int writeRound(Table table, byte[] types, int headers, List<Callable<byte[]>> encoders,
+								  List<Integer> encodedColumns, ObjectOutputStream out, ConcurrencyContext context)
+			throws IOException {
+		if (encoders.isEmpty()) {
+			return headers;
+		}
+		List<byte[]> blocks;
+		try {
+			blocks = context.call(encoders);
+		} catch (ExecutionException e) {
+			throw new IOException("Failed to encode column", e.getCause());
+		}
+		int nextHeader = headers;
+		for (int i = 0; i < blocks.size(); i++) {
+			int column = encodedColumns.get(i);
+			while (nextHeader <= column) {
+				writeHeader(table.column(nextHeader), types[nextHeader], out);
+				nextHeader++;
+			}
+			out.write(blocks.get(i));
+		}
+		encoders.clear();
+		encodedColumns.clear();
+		return nextHeader;
+	}
+
+	/**
+	 * Reads a table written by {@link #write(Table, boolean[], ObjectOutputStream, ConcurrencyContext)}.
+	 *
+	 * @param in
+	 * 		the stream to read from
+	 * @return the table
+	 * @throws IOException
+	 * 		if reading fails
+	 * @throws ClassNotFoundException
+	 * 		if the class of a dictionary or the labels cannot be found
+	 */
+	static Table read(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		int height = in.readInt();
+		int width = in.readInt();
+		String[] labels = (String[]) in.readObject();
+		@SuppressWarnings("unchecked")
+		Map<String, List<ColumnMetaData>> metaData = (Map<String, List<ColumnMetaData>>) in.readObject();
+		Column[] columns = new Column[width];
+		Column unused = null;
+		for (int i = 0; i < width; i++) {
+			byte type = in.readByte();
+			switch (type) {
+				case TYPE_UNUSED:
+					if (unused == null) {
+						unused = ColumnAccessor.get().newSingleValueCategoricalColumn(ColumnType.NOMINAL, "", height);
+					}
+					columns[i] = unused;
+					break;
+				case TYPE_REAL:
+					columns[i] = ColumnAccessor.get().newNumericColumn(Column.TypeId.REAL, readDoubles(in, height));
+					break;
+				case TYPE_INTEGER:
+					columns[i] = ColumnAccessor.get().newNumericColumn(Column.TypeId.INTEGER_53_BIT,
+							readDoubles(in, height));
+					break;
+				case TYPE_NOMINAL:
+					columns[i] = readNominal(in, height);
+					break;
+				case TYPE_DATE_TIME:
+					columns[i] = readDateTime(in, height);
+					break;
+				case TYPE_TIME:
+					columns[i] = readTime(in, height);
+					break;
+				default:
+					throw new IOException("Unknown column type " + type);
+			}
+		}
+		return new Table(columns, labels, metaData);
+	}
+
+	/**
+	 * @return the type code of the standard column
+	 */
+	private static byte typeCode(Column column) {
+		switch (column.type().id()) {
+			case REAL:
+				return TYPE_REAL;
+			case INTEGER_53_BIT:
+				return TYPE_INTEGER;
+			case NOMINAL:
+				return TYPE_NOMINAL;
+			case DATE_TIME:
+				return TYPE_DATE_TIME;
+			case TIME:
+				return TYPE_TIME;
+			default:
+				throw new IllegalArgumentException("Cannot write column of type " + column.type());
+		}
+	}
+
+	/**
+	 * Writes the type code and for nominal columns the dictionary, whether it is boolean, the positive index and the
+	 * number of bytes per category index.
+	 */
+	private static void writeHeader(Column column, byte type, ObjectOutputStream out) throws IOException {
+		out.writeByte(type);
+		if (type == TYPE_NOMINAL) {
+			Dictionary dictionary = column.getDictionary();
+			out.writeObject(new ArrayList<>(ColumnAccessor.get().getDictionaryList(dictionary)));
+			int positiveIndex = BooleanDictionary.NO_ENTRY;
+			if (dictionary.isBoolean() && dictionary.hasPositive()) {
+				positiveIndex = dictionary.getPositiveIndex();
+			}
+			out.writeBoolean(dictionary.isBoolean());
+			out.writeInt(positiveIndex);
+			out.writeByte(bytesPerCategory(dictionary.maximalIndex()));
+		}
+	}
+
+	/**
+	 * Copies the meta data of the table into serializable collections.
+	 *
+	 * @throws NotSerializableException
+	 * 		if some meta data is not serializable
+	 */
+	private static HashMap<String, List<ColumnMetaData>> metaData(Table table) throws NotSerializableException {
+		HashMap<String, List<ColumnMetaData>> metaData = new HashMap<>();
+		for (String label : table.labelArray()) {
+			List<ColumnMetaData> columnMetaData = table.getMetaData(label);
+			if (columnMetaData.isEmpty()) {
+				continue;
+			}
+			for (ColumnMetaData data : columnMetaData) {
+				if (!(data instanceof Serializable)) {
+					throw new NotSerializableException(data.getClass().getName() + " of column " + label);
+				}
+			}
+			metaData.put(label, new ArrayList<>(columnMetaData));
+		}
+		return metaData;
+	}
+
+	/**
+	 * Encodes the block of the column starting at the given row.
+	 */
+	private static byte[] encode(Column column, byte type, int start) {
+		int length = Math.min(BLOCK_SIZE, column.size() - start);
+		switch (type) {
+			case TYPE_REAL:
+			case TYPE_INTEGER:
+				return encodeDoubles(column, start, length);
+			case TYPE_NOMINAL:
+				return encodeCategories(column, start, length);
+			case TYPE_DATE_TIME:
+				return encodeDateTime(column, start, length);
+			case TYPE_TIME:
+				return encodeTime(column, start, length);
+			default:
+				throw new IllegalArgumentException("Unknown column type " + type);
+		}
+	}
+
+	private static byte[] encodeDoubles(Column column, int start, int length) {
+		double[] values = new double[length];
+		column.fill(values, start);
+		ByteBuffer block = ByteBuffer.allocate(length * Double.BYTES);
+		block.asDoubleBuffer().put(values);
+		return block.array();
+	}
+
+	private static byte[] encodeCategories(Column column, int start, int length) {
+		int bytesPerCategory = bytesPerCategory(column.getDictionary().maximalIndex());
+		int[] categories = new int[length];
+		column.fill(categories, start);
+		ByteBuffer block = ByteBuffer.allocate(length * bytesPerCategory);
+		for (int category : categories) {
+			if (bytesPerCategory == Byte.BYTES) {
+				block.put((byte) category);
+			} else if (bytesPerCategory == Short.BYTES) {
+				block.putShort((short) category);
+			} else {
+				block.putInt(category);
+			}
+		}
+		return block.array();
+	}
+
+	private static byte[] encodeDateTime(Column column, int start, int length) {
+		ObjectReader<Instant> reader = Readers.objectReader(column, Instant.class);
+		reader.setPosition(start - 1);
+		ByteBuffer block = ByteBuffer.allocate(length * (Long.BYTES + Integer.BYTES));
+		for (int i = 0; i < length; i++) {
+			Instant instant = reader.read();
+			if (instant == null) {
+				block.putLong(MISSING_TIME).putInt(0);
+			} else {
+				block.putLong(instant.getEpochSecond()).putInt(instant.getNano());
+			}
+		}
+		return block.array();
+	}
+
+	private static byte[] encodeTime(Column column, int start, int length) {
+		ObjectReader<LocalTime> reader = Readers.objectReader(column, LocalTime.class);
+		reader.setPosition(start - 1);
+		ByteBuffer block = ByteBuffer.allocate(length * Long.BYTES);
+		for (int i = 0; i < length; i++) {
+			LocalTime time = reader.read();
+			block.putLong(time == null ? MISSING_TIME : time.toNanoOfDay());
+		}
+		return block.array();
+	}
+
+	private static double[] readDoubles(ObjectInputStream in, int height) throws IOException {
+		double[] data = new double[height];
+		for (int start = 0; start < height; start += BLOCK_SIZE) {
+			int length = Math.min(BLOCK_SIZE, height - start);
+			ByteBuffer block = readBlock(in, length * Double.BYTES);
+			block.asDoubleBuffer().get(data, start, length);
+		}
+		return data;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Column readNominal(ObjectInputStream in, int height) throws IOException, ClassNotFoundException {
+		List<String> dictionary = (List<String>) in.readObject();
+		boolean isBoolean = in.readBoolean();
+		int positiveIndex = in.readInt();
+		int bytesPerCategory = in.readByte();
+		if (isBoolean && bytesPerCategory == Byte.BYTES) {
+			// boolean dictionaries have at most two values, so the categories are stored in bytes
+			byte[] data = new byte[height];
+			for (int start = 0; start < height; start += BLOCK_SIZE) {
+				int length = Math.min(BLOCK_SIZE, height - start);
+				readBlock(in, length).get(data, start, length);
+			}
+			PackedIntegers packed = new PackedIntegers(data, Format.UNSIGNED_INT8, height);
+			return ColumnAccessor.get().newCategoricalColumn(ColumnType.NOMINAL, packed, dictionary, positiveIndex);
+		}
+		int[] data = new int[height];
+		for (int start = 0; start < height; start += BLOCK_SIZE) {
+			int length = Math.min(BLOCK_SIZE, height - start);
+			ByteBuffer block = readBlock(in, length * bytesPerCategory);
+			for (int i = start; i < start + length; i++) {
+				if (bytesPerCategory == Byte.BYTES) {
+					data[i] = Byte.toUnsignedInt(block.get());
+				} else if (bytesPerCategory == Short.BYTES) {
+					data[i] = Short.toUnsignedInt(block.getShort());
+				} else {
+					data[i] = block.getInt();
+				}
+			}
+		}
+		return ColumnAccessor.get().newCategoricalColumn(ColumnType.NOMINAL, data, dictionary);
+	}
+
+	private static Column readDateTime(ObjectInputStream in, int height) throws IOException {
+		long[] seconds = new long[height];
+		int[] nanos = new int[height];
+		boolean subSecond = false;
+		for (int start = 0; start < height; start += BLOCK_SIZE) {
+			int length = Math.min(BLOCK_SIZE, height - start);
+			ByteBuffer block = readBlock(in, length * (Long.BYTES + Integer.BYTES));
+			for (int i = start; i < start + length; i++) {
+				seconds[i] = block.getLong();
+				nanos[i] = block.getInt();
+				subSecond |= nanos[i] != 0;
+			}
+		}
+		DateTimeBuffer buffer = Buffers.dateTimeBuffer(height, subSecond, false);
+		for (int i = 0; i < height; i++) {
+			if (seconds[i] == MISSING_TIME) {
+				buffer.set(i, null);
+			} else {
+				buffer.set(i, seconds[i], nanos[i]);
+			}
+		}
+		return buffer.toColumn();
+	}
+
+	private static Column readTime(ObjectInputStream in, int height) throws IOException {
+		TimeBuffer buffer = Buffers.timeBuffer(height, false);
+		for (int start = 0; start < height; start += BLOCK_SIZE) {
+			int length = Math.min(BLOCK_SIZE, height - start);
+			ByteBuffer block = readBlock(in, length * Long.BYTES);
+			for (int i = start; i < start + length; i++) {
+				long nanos = block.getLong();
+				if (nanos == MISSING_TIME) {
+					buffer.set(i, null);
+				} else {
+					buffer.set(i, nanos);
+				}
+			}
+		}
+		return buffer.toColumn();
+	}
+
+	/**
+	 * Reads the given number of bytes into a buffer.
+	 */
+	private static ByteBuffer readBlock(ObjectInputStream in, int length) throws IOException {
+		byte[] block = new byte[length];
+		in.readFully(block);
+		return ByteBuffer.wrap(block);
+	}
+
+	/**
+	 * @return the number of bytes needed to store category indices up to the maximal index
+	 */
+	private static int bytesPerCategory(int maximalIndex) {
+		if (maximalIndex <= MAX_BYTE_CATEGORY) {
+			return Byte.BYTES;
+		}
+		if (maximalIndex <= MAX_SHORT_CATEGORY) {
+			return Short.BYTES;
+		}
+		return Integer.BYTES;
+	}
+
+}
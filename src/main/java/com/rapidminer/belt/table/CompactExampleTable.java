@@ -0,0 +1,416 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.table.ExampleTable;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * {@link ExampleTable} that stores the values of every column in the smallest primitive type that fits the attribute.
+ * Nominal values are stored as bytes, integer values as ints, date-time values as longs and only other numeric values
+ * as doubles. If a value is written that does not fit, the column switches to a wider type. Compared to storing every
+ * value as double, nominal columns need an eighth and integer columns half of the memory. As for other example tables,
+ * different rows of a column can be written concurrently, also while the column switches to a wider type.
+ *
+ * @since 1.0.2
+ */
+final class CompactExampleTable extends AbstractColumnExampleTable {
+
+	private static final long serialVersionUID = 2092381637400164367L;
+
+	/**
+	 * Creates a new table with a zero-filled column for every attribute. The table index of every attribute is set to
+	 * its position in the list.
+	 *
+	 * @param attributeList
+	 * 		the attributes of the table
+	 * @param height
+	 * 		the number of rows
+	 */
+	CompactExampleTable(List<Attribute> attributeList, int height) {
+		super(attributeList, height);
+	}
+
+	private CompactExampleTable(Attribute[] attributes, LegacyColumn[] columns, int height) {
+		super(attributes, columns, height);
+	}
+
+	@Override
+	LegacyColumn newColumn(Attribute attribute, int height) {
+		return newCompactColumn(attribute, height);
+	}
+
+	/**
+	 * Creates a new zero-filled column that stores the values in the smallest primitive type fitting the attribute.
+	 * Nominal columns are stored as bytes only if the current mapping fits, so that they rarely need to switch to a
+	 * wider type later.
+	 *
+	 * @param attribute
+	 * 		the attribute to create the column for
+	 * @param height
+	 * 		the number of rows
+	 * @return a new compact column
+	 */
+	static LegacyColumn newCompactColumn(Attribute attribute, int height) {
+		return new CompactColumn(newValues(attribute, height), false);
+	}
+
+	/**
+	 * Creates a new zero-filled column like {@link #newCompactColumn(Attribute, int)} in the exclusive mode where
+	 * writes take no lock, see {@link #endExclusiveWrites(LegacyColumn)}. Used for columns that are filled by one
+	 * thread before they are published.
+	 *
+	 * @param attribute
+	 * 		the attribute to create the column for
+	 * @param height
+	 * 		the number of rows
+	 * @return a new compact column in exclusive mode
+	 */
+	static LegacyColumn newExclusiveColumn(Attribute attribute, int height) {
+		return new CompactColumn(newValues(attribute, height), true);
+	}
+
+	/**
+	 * Ends the exclusive mode of a column created by {@link #newExclusiveColumn(Attribute, int)} or of the columns of
+	 * a table after {@link #startExclusiveWrites()}, so that it can be written concurrently. Must be called before
+	 * the column is published to other threads.
+	 *
+	 * @param column
+	 * 		a column of a compact example table
+	 */
+	static void endExclusiveWrites(LegacyColumn column) {
+		((CompactColumn) column).exclusive = false;
+	}
+
+	/**
+	 * Switches all columns into the exclusive mode where writes take no lock. Until {@link #endExclusiveWrites()},
+	 * every column must be written by at most one thread and the table must not be used otherwise, as when a new
+	 * table is filled by a conversion before it is published.
+	 */
+	void startExclusiveWrites() {
+		for (int i = 0; i < getNumberOfAttributes(); i++) {
+			LegacyColumn column = getColumn(i);
+			if (column != null) {
+				((CompactColumn) column).exclusive = true;
+			}
+		}
+	}
+
+	/**
+	 * Ends the exclusive mode started by {@link #startExclusiveWrites()}. Must be called by the thread that publishes
+	 * the table after all writing threads have finished.
+	 */
+	void endExclusiveWrites() {
+		for (int i = 0; i < getNumberOfAttributes(); i++) {
+			LegacyColumn column = getColumn(i);
+			if (column != null) {
+				endExclusiveWrites(column);
+			}
+		}
+	}
+
+	/**
+	 * Creates the zero-filled values for {@link #newCompactColumn(Attribute, int)}.
+	 */
+	private static Values newValues(Attribute attribute, int height) {
+		int valueType = attribute.getValueType();
+		if (attribute.isNominal()) {
+			if (attribute.getMapping().size() < Byte.MAX_VALUE) {
+				return new ByteValues(height);
+			}
+			return new IntValues(height);
+		}
+		if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(valueType, Ontology.DATE_TIME)) {
+			return new LongValues(height);
+		}
+		if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(valueType, Ontology.INTEGER)) {
+			return new IntValues(height);
+		}
+		return new DoubleValues(height);
+	}
+
+	@Override
+	CompactExampleTable newTable(Attribute[] attributes, LegacyColumn[] columns, int height) {
+		return new CompactExampleTable(attributes, columns, height);
+	}
+
+	@Override
+	public CompactExampleTable columnCleanupClone(Attributes attributes) {
+		return (CompactExampleTable) super.columnCleanupClone(attributes);
+	}
+
+	/**
+	 * Column that switches to wider values when a value does not fit. Writes hold the read lock of the {@link
+	 * #widenLock} so that they can happen concurrently, switching to wider values holds the write lock so that no
+	 * write goes to the values that are replaced. Reads need no lock since the values are only published after they
+	 * contain all written values. In the exclusive mode, the column has a single writer and no readers, so writes
+	 * take no lock at all.
+	 */
+	private static final class CompactColumn implements LegacyColumn {
+
+		private static final long serialVersionUID = -1425005282734574117L;
+
+		private volatile Values values;
+
+		private final transient StampedLock widenLock = new StampedLock();
+
+		/**
+		 * whether the column is written by a single thread before it is published. Not volatile since it is only
+		 * changed before the column is published to other threads.
+		 */
+		private transient boolean exclusive;
+
+		private CompactColumn(Values values, boolean exclusive) {
+			this.values = values;
+			this.exclusive = exclusive;
+		}
+
+		@Override
+		public double get(int row) {
+			return values.get(row);
+		}
+
+		@Override
+		public void set(int row, double value) {
+			if (exclusive) {
+				Values current = values;
+				if (!current.set(row, value)) {
+					do {
+						current = current.widen();
+					} while (!current.set(row, value));
+					values = current;
+				}
+				return;
+			}
+			long stamp = widenLock.readLock();
+			try {
+				if (values.set(row, value)) {
+					return;
+				}
+			} finally {
+				widenLock.unlockRead(stamp);
+			}
+			stamp = widenLock.writeLock();
+			try {
+				Values current = values;
+				while (!current.set(row, value)) {
+					current = current.widen();
+				}
+				values = current;
+			} finally {
+				widenLock.unlockWrite(stamp);
+			}
+		}
+
+		/**
+		 * Replaces the deserialized column by a copy since the transient lock is not restored by deserialization.
+		 */
+		private Object readResolve() {
+			return new CompactColumn(values, false);
+		}
+	}
+
+	/**
+	 * Primitive values of a {@link CompactColumn}. Missing values are stored as the minimal value of the type, so that
+	 * the default {@code 0} of a new array is the value {@code 0}.
+	 */
+	private abstract static class Values implements Serializable {
+
+		private static final long serialVersionUID = 2766035290224720522L;
+
+		/**
+		 * @return the value at the row
+		 */
+		abstract double get(int row);
+
+		/**
+		 * Stores the value if it fits.
+		 *
+		 * @return whether the value was stored
+		 */
+		abstract boolean set(int row, double value);
+
+		/**
+		 * @return values of a wider type containing the same values
+		 */
+		abstract Values widen();
+
+		/**
+		 * Checks whether the value is {@code -0.0} which does not survive a cast to an integral type.
+		 */
+		static boolean isNegativeZero(double value) {
+			return value == 0 && Double.doubleToRawLongBits(value) != 0;
+		}
+	}
+
+	private static final class ByteValues extends Values {
+
+		private static final long serialVersionUID = -6133011768468719047L;
+
+		private final byte[] data;
+
+		private ByteValues(int height) {
+			data = new byte[height];
+		}
+
+		@Override
+		double get(int row) {
+			byte value = data[row];
+			return value == Byte.MIN_VALUE ? Double.NaN : value;
+		}
+
+		@Override
+		boolean set(int row, double value) {
+			if (Double.isNaN(value)) {
+				data[row] = Byte.MIN_VALUE;
+				return true;
+			}
+			byte byteValue = (byte) value;
+			if (byteValue != value || byteValue == Byte.MIN_VALUE || isNegativeZero(value)) {
+				return false;
+			}
+			data[row] = byteValue;
+			return true;
+		}
+
+		@Override
+		Values widen() {
+			IntValues wider = new IntValues(data.length);
+			for (int i = 0; i < data.length; i++) {
+				wider.data[i] = data[i] == Byte.MIN_VALUE ? Integer.MIN_VALUE : data[i];
+			}
+			return wider;
+		}
+	}
+
+	private static final class IntValues extends Values {
+
+		private static final long serialVersionUID = 4411702196358553587L;
+
+		private final int[] data;
+
+		private IntValues(int height) {
+			data = new int[height];
+		}
+
+		@Override
+		double get(int row) {
+			int value = data[row];
+			return value == Integer.MIN_VALUE ? Double.NaN : value;
+		}
+
+		@Override
+		boolean set(int row, double value) {
+			if (Double.isNaN(value)) {
+				data[row] = Integer.MIN_VALUE;
+				return true;
+			}
+			int intValue = (int) value;
+			if (intValue != value || intValue == Integer.MIN_VALUE || isNegativeZero(value)) {
+				return false;
+			}
+			data[row] = intValue;
+			return true;
+		}
+
+		@Override
+		Values widen() {
+			DoubleValues wider = new DoubleValues(data.length);
+			for (int i = 0; i < data.length; i++) {
+				wider.data[i] = get(i);
+			}
+			return wider;
+		}
+	}
+
+	private static final class LongValues extends Values {
+
+		private static final long serialVersionUID = -4541178830806300546L;
+
+		private final long[] data;
+
+		private LongValues(int height) {
+			data = new long[height];
+		}
+
+		@Override
+		double get(int row) {
+			long value = data[row];
+			return value == Long.MIN_VALUE ? Double.NaN : value;
+		}
+
+		@Override
+		boolean set(int row, double value) {
+			if (Double.isNaN(value)) {
+				data[row] = Long.MIN_VALUE;
+				return true;
+			}
+			long longValue = (long) value;
+			if (longValue != value || longValue == Long.MIN_VALUE || isNegativeZero(value)) {
+				return false;
+			}
+			data[row] = longValue;
+			return true;
+		}
+
+		@Override
+		Values widen() {
+			DoubleValues wider = new DoubleValues(data.length);
+			for (int i = 0; i < data.length; i++) {
+				wider.data[i] = get(i);
+			}
+			return wider;
+		}
+	}
+
+	private static final class DoubleValues extends Values {
+
+		private static final long serialVersionUID = 1796154926853393470L;
+
+		private final double[] data;
+
+		private DoubleValues(int height) {
+			data = new double[height];
+		}
+
+		@Override
+		double get(int row) {
+			return data[row];
+		}
+
+		@Override
+		boolean set(int row, double value) {
+			data[row] = value;
+			return true;
+		}
+
+		@Override
+		Values widen() {
+			return this;
+		}
+	}
+
+}
@@ -19,6 +19,8 @@
 package com.rapidminer.belt.table;
 
 import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,17 +31,20 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
+import java.util.concurrent.Callable;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import com.rapidminer.belt.column.Column;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.AttributeRole;
 import com.rapidminer.example.Attributes;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.SimpleAttributes;
 import com.rapidminer.example.set.SimpleExampleSet;
-import com.rapidminer.example.table.AttributeFactory;
 import com.rapidminer.example.table.DataRow;
 import com.rapidminer.example.table.DataRowFactory;
 import com.rapidminer.example.table.DataRowReader;
@@ -48,18 +53,26 @@ import com.rapidminer.example.table.internal.CleanableExampleTable;
 import com.rapidminer.example.table.internal.ColumnarExampleTable;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.error.AttributeNotFoundError;
-import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.Tools;
 import com.rapidminer.tools.att.AttributeSet;
 
 
 /**
- * {@link ExampleTable} that wraps either a belt {@link Table} plus a {@link ColumnarExampleTable} of additional columns
- * or just a {@link ColumnarExampleTable} containing the converted belt {@link Table} and the additional columns. This
+ * {@link ExampleTable} that wraps either a belt {@link Table} plus a {@link TypedExampleTable} of additional columns
+ * or just a {@link CompactExampleTable} containing the converted belt {@link Table} and the additional columns. This
  * allows to read the values of the belt table and add and fill additional columns as for a normal {@link ExampleTable}.
- * The conversion is only done if a {@link DataRow#set(int, double, double)} is called for a belt column. This case is a
- * bug anyway, since one of the unwritten rules of {@link ExampleSet}s is not to write into columns that have not been
- * added.
+ * If a {@link DataRow#set(int, double, double)} is called for a belt column, the value is stored in a sparse {@link
+ * WriteOverlay} for this column. Only if more values than allowed by the {@link #PROPERTY_OVERLAY_DENSITY} are written,
+ * the column is converted and read from then on. This case is a bug anyway, since one of the unwritten rules of {@link
+ * ExampleSet}s is not to write into columns that have not been added. Removed belt columns are only marked as unused
+ * in the {@link AbstractTableAccessor}. On serialization, the belt table is written column by column, see {@link
+ * ColumnarTableSerializer}, so that the table is not converted. Under heap pressure, added columns can be stored in
+ * memory-mapped files, see {@link #PROPERTY_SPILL_THRESHOLD}.
+ *
+ * <p>All of the above is captured in one immutable {@link State} so that reading a value needs only one volatile
+ * read. Writing into the additional columns needs no lock since the conversion takes over their columns.
+ *
+ * <p>Conversions, reads and lock waiting times can be monitored via JMX, see {@link ConvertOnWriteStatistics}.
  *
  * @author Gisa Meier
  * @since 0.7
@@ -67,20 +80,64 @@ import com.rapidminer.tools.att.AttributeSet;
 class ConvertOnWriteExampleTable implements CleanableExampleTable {
 
 	/**
-	 * the accessor for the belt table
+	 * the default serial version of the first version of this class, kept so that tables written by it can still be
+	 * read, see {@link #readObject(ObjectInputStream)}
+	 */
+	private static final long serialVersionUID = 5514416007517403097L;
+
+	/**
+	 * the current version of the serialization format, see {@link #formatVersion}
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * System property for the fraction of the rows of a belt column that can be written into the {@link WriteOverlay}
+	 * before the column is converted. Must be a number between {@code 0} and {@code 1}, {@code 0} converts a column on
+	 * the first write.
+	 *
+	 * @since 1.0.2
+	 */
+	static final String PROPERTY_OVERLAY_DENSITY = "rapidminer.belt.convert_on_write.overlay_density";
+
+	/**
+	 * the overlay density used if the system property is not set or invalid
+	 */
+	private static final double DEFAULT_OVERLAY_DENSITY = 0.01;
+
+	/**
+	 * System property for the fraction of the maximal heap above which added columns are stored in memory-mapped
+	 * temporary files, see {@link MappedColumn}. Must be a number greater than {@code 0} and at most {@code 1}. If the
+	 * property is not set or invalid, added columns are always stored on the heap.
+	 *
+	 * @since 1.0.2
+	 */
+	static final String PROPERTY_SPILL_THRESHOLD = "rapidminer.belt.convert_on_write.spill_threshold";
+
+	/**
+	 * the current state, replaced as a whole on every change. Restored from the converted table on deserialization.
+	 */
+	private transient volatile State state;
+
+	/**
+	 * the attributes as of the last call to {@link #getSnapshot(State)}, rebuilt when attributes were added or removed
 	 */
-	private transient volatile AbstractTableAccessor tableAccessor;
+	private transient volatile AttributeSnapshot snapshot;
 
 	/**
-	 * Extra table for adding new columns. We cannot add those to the belt table since in the belt API they are
-	 * immutable and in the example table API they are added first and then filled
+	 * the context used for converting the belt table in parallel, {@code null} if none was given or after
+	 * deserialization
 	 */
-	private volatile ColumnarExampleTable newColumns;
+	private final transient ConcurrencyContext context;
 
 	/**
-	 * the whole converted table (converted belt table plus newColumns)
+	 * when to convert belt columns in the background
 	 */
-	private volatile ColumnarExampleTable convertedTable;
+	private final TableViewCreator.PreConversion preConversion;
+
+	/**
+	 * the maximal number of values in an overlay before the column is converted
+	 */
+	private final int overlayLimit;
 
 	/**
 	 * the width of the underlying belt table
@@ -93,24 +150,41 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 	 */
 	private final int height;
 
+	/**
+	 * the version of the format the table was written in, {@code 0} for tables written by the first version of this
+	 * class which only contain the {@link #convertedTable}
+	 */
+	private final int formatVersion;
 
 	/**
-	 * Locks to prevent a convert in parallel to a write of the new columns table
+	 * the converted table of tables written by the first version of this class, {@code null} otherwise. Only read on
+	 * deserialization where it is copied into the state.
+	 */
+	private final ColumnarExampleTable convertedTable = null;
+
+	/**
+	 * Locks to prevent a convert in parallel to a change of the attributes or the belt columns
 	 */
 	private final transient ReadWriteLock rwLock = new ReentrantReadWriteLock();
 	/**
-	 * Used for writing to the new Columns table, arbitrary many in parallel but not at the same time as convert
+	 * Used for adding and removing attributes and for writing to the belt columns, arbitrary many in parallel but not
+	 * at the same time as convert
 	 */
 	private final transient Lock readLock = rwLock.readLock();
 	/**
-	 * Used for convert(), only one thread at a time
+	 * Used for completing convert(), only one thread at a time
 	 */
 	private final transient Lock writeLock = rwLock.writeLock();
 
 	/**
-	 * Lock object to prevent several newColumns tables being constructed in parallel. There can only be one.
+	 * Lock so that only one thread converts the belt table at a time. Must be acquired before the {@link #writeLock}.
+	 */
+	private final transient Lock convertLock = new ReentrantLock();
+
+	/**
+	 * Lock object to prevent several threads holding the {@link #readLock} from replacing the state in parallel.
 	 */
-	private final transient Object newColumnsTableLock = new Object();
+	private final transient Object stateLock = new Object();
 
 	/**
 	 * Creates a new convert on write table based on the given belt table. The attributes in the list are neither cloned
@@ -124,25 +198,56 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 	 * 		the number of date-time columns
 	 */
 	ConvertOnWriteExampleTable(Table table, List<Attribute> attributeList, int numberOfDatetime) {
+		this(table, attributeList, numberOfDatetime, null, TableViewCreator.PreConversion.NONE);
+	}
+
+	/**
+	 * Creates a new convert on write table based on the given belt table. The attributes in the list are neither cloned
+	 * nor is their table index changed. If the table must be converted, the columns are converted in parallel using the
+	 * given context.
+	 *
+	 * @param table
+	 * 		the belt table to wrap
+	 * @param attributeList
+	 * 		the list of attributes fitting to the belt table
+	 * @param numberOfDatetime
+	 * 		the number of date-time columns
+	 * @param context
+	 * 		the context to use for converting, can be {@code null} to convert sequentially and only on demand
+	 * @param preConversion
+	 * 		whether to convert belt columns in the background on the first write, see {@link
+	 * 		TableViewCreator.PreConversion}. The whole table is only converted in the background on {@link
+	 * 		#convertInBackground()}.
+	 */
+	ConvertOnWriteExampleTable(Table table, List<Attribute> attributeList, int numberOfDatetime,
+							   ConcurrencyContext context, TableViewCreator.PreConversion preConversion) {
+		AbstractTableAccessor tableAccessor;
 		if (numberOfDatetime > 0) {
 			tableAccessor = new MixedTableAccessor(table, attributeList, numberOfDatetime, 0);
 		} else {
 			tableAccessor = new NumericTableAccessor(table, attributeList, 0);
 		}
+		state = new State(tableAccessor, null, null, null, null);
 		originalWidth = table.width();
 		height = table.height();
+		overlayLimit = overlayLimit(height);
+		this.context = context;
+		this.preConversion = preConversion;
+		formatVersion = FORMAT_VERSION;
 	}
 
 	/**
 	 * Copy-constructor.
 	 */
-	private ConvertOnWriteExampleTable(AbstractTableAccessor tableAccessor, ColumnarExampleTable convertedTable,
-									   ColumnarExampleTable newColumns, int originalWidth, int originalHeight) {
-		this.tableAccessor = tableAccessor;
-		this.convertedTable = convertedTable;
-		this.newColumns = newColumns;
+	private ConvertOnWriteExampleTable(State state, int originalWidth, int originalHeight,
+									   ConcurrencyContext context, TableViewCreator.PreConversion preConversion) {
+		this.state = state;
 		this.originalWidth = originalWidth;
 		this.height = originalHeight;
+		this.overlayLimit = overlayLimit(originalHeight);
+		this.context = context;
+		this.preConversion = preConversion;
+		formatVersion = FORMAT_VERSION;
 	}
 
 	@Override
@@ -152,13 +257,15 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 
 	@Override
 	public DataRowReader getDataRowReader() {
-		if (convertedTable != null) {
-			return convertedTable.getDataRowReader();
+		State current = state;
+		// with statistics, the rows of converted tables are not handed out so that their reads are counted
+		if (current.convertedTable != null && !ConvertOnWriteStatistics.ENABLED) {
+			return current.convertedTable.getDataRowReader();
 		}
 		return new DataRowReader() {
 
 			//holds the reference as long as the reader is alive
-			private Object beltReader = getReader(tableAccessor);
+			private Object beltReader = getReader(current.tableAccessor);
 
 			private int index = 0;
 
@@ -170,7 +277,8 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 			@Override
 			public DataRow next() {
 				final int currentRow = index++;
-				if (convertedTable != null) {
+				CompactExampleTable convertedTable = state.convertedTable;
+				if (convertedTable != null && !ConvertOnWriteStatistics.ENABLED) {
 					return convertedTable.getDataRow(currentRow);
 				}
 				return new DataRow() {
@@ -182,27 +290,15 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 
 					@Override
 					protected void set(int columnIndex, double value, double defaultValue) {
-						readLock.lock();
-						try {
-							if (newColumns != null && columnIndex >= originalWidth) {
-								newColumns.getDataRow(currentRow).set(newColumns.getAttribute(columnIndex - originalWidth)
-										, value);
-								return;
-							}
-						} finally {
-							readLock.unlock();
-						}
-						if (convertedTable == null) {
-							convert();
+						if (setValue(columnIndex, currentRow, value)) {
 							// delete the reader reference
 							beltReader = null;
 						}
-						convertedTable.getDataRow(currentRow).set(convertedTable.getAttribute(columnIndex), value);
 					}
 
 					@Override
 					protected void ensureNumberOfColumns(int i) {
-						//not necessary, converted table and newColumns are {@link ColumnarExampleTable}
+						//not necessary, converted table and newColumns add columns for all rows
 					}
 
 					@Override
@@ -227,13 +323,14 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 
 	@Override
 	public DataRow getDataRow(int rowIndex) {
-		if (convertedTable != null) {
-			return convertedTable.getDataRow(rowIndex);
+		State current = state;
+		if (current.convertedTable != null && !ConvertOnWriteStatistics.ENABLED) {
+			return current.convertedTable.getDataRow(rowIndex);
 		}
 		return new DataRow() {
 
 			// holds the reader reference as long as the row is alive
-			private transient Object reader = getUnbufferedReader(tableAccessor);
+			private transient Object reader = getUnbufferedReader(current.tableAccessor);
 
 			@Override
 			protected double get(int columnIndex, double defaultValue) {
@@ -242,27 +339,15 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 
 			@Override
 			protected void set(int columnIndex, double value, double defaultValue) {
-				readLock.lock();
-				try {
-					if (newColumns != null && columnIndex >= originalWidth) {
-						newColumns.getDataRow(rowIndex).set(newColumns.getAttribute(columnIndex - originalWidth), value);
-						return;
-					}
-				} finally {
-					readLock.unlock();
-				}
-
-				if (convertedTable == null) {
-					convert();
+				if (setValue(columnIndex, rowIndex, value)) {
 					// delete the reader reference
 					reader = null;
 				}
-				convertedTable.getDataRow(rowIndex).set(convertedTable.getAttribute(columnIndex), value);
 			}
 
 			@Override
 			protected void ensureNumberOfColumns(int i) {
-				//not necessary, converted table and newColumns are {@link ColumnarExampleTable}
+				//not necessary, converted table and newColumns add columns for all rows
 			}
 
 			@Override
@@ -283,19 +368,15 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 
 	@Override
 	public void addAttributes(Collection<Attribute> collection) {
-		readLock.lock();
+		lock(readLock);
 		try {
-			if (convertedTable != null) {
-				convertedTable.addAttributes(collection);
+			State current = state;
+			if (current.convertedTable != null) {
+				current.convertedTable.addAttributes(collection);
 				return;
 			}
-			if (newColumns == null) {
-				createNewColumns();
-			}
-			newColumns.addAttributes(collection);
 			for (Attribute attribute : collection) {
-				int internalIndex = attribute.getTableIndex();
-				attribute.setTableIndex(originalWidth + internalIndex);
+				addNewColumn(attribute);
 			}
 		} finally {
 			readLock.unlock();
@@ -304,19 +385,13 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 
 	@Override
 	public int addAttribute(Attribute attribute) {
-		readLock.lock();
+		lock(readLock);
 		try {
-			if (convertedTable != null) {
-				return convertedTable.addAttribute(attribute);
-			}
-			if (newColumns == null) {
-				createNewColumns();
+			State current = state;
+			if (current.convertedTable != null) {
+				return current.convertedTable.addAttribute(attribute);
 			}
-			newColumns.addAttribute(attribute);
-			int tableIndex = attribute.getTableIndex();
-			int shiftedIndex = tableIndex + originalWidth;
-			attribute.setTableIndex(shiftedIndex);
-			return shiftedIndex;
+			return addNewColumn(attribute);
 		} finally {
 			readLock.unlock();
 		}
@@ -324,142 +399,112 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 
 	@Override
 	public void removeAttribute(Attribute attribute) {
-		if (convertedTable != null) {
-			convertedTable.removeAttribute(attribute);
-			return;
-		}
-		readLock.lock();
-		try {
-			if (attribute.getTableIndex() >= originalWidth && newColumns != null) {
-				newColumns.removeAttribute(attribute.getTableIndex() - originalWidth);
-				return;
-			}
-		} finally {
-			readLock.unlock();
-		}
-
-		if (convertedTable == null) {
-			convert();
-		}
-		convertedTable.removeAttribute(attribute);
-
+		removeAttribute(attribute.getTableIndex());
 	}
 
 	@Override
 	public void removeAttribute(int i) {
-		if (convertedTable != null) {
-			convertedTable.removeAttribute(i);
+		State current = state;
+		if (current.convertedTable != null) {
+			current.convertedTable.removeAttribute(i);
 			return;
 		}
-		readLock.lock();
+		lock(readLock);
 		try {
-			if (i >= originalWidth && newColumns != null) {
-				newColumns.removeAttribute(i - originalWidth);
-				return;
+			current = state;
+			if (current.convertedTable == null) {
+				if (i < originalWidth) {
+					removeBeltColumn(i);
+					return;
+				}
+				if (current.newColumns != null) {
+					current.newColumns.removeAttribute(i - originalWidth);
+					return;
+				}
 			}
 		} finally {
 			readLock.unlock();
 		}
 
-		if (convertedTable == null) {
-			convert();
-		}
-		convertedTable.removeAttribute(i);
+		convert(ConvertOnWriteStatistics.Trigger.REMOVE_ATTRIBUTE).removeAttribute(i);
 	}
 
 	@Override
 	public Attribute[] getAttributes() {
-		// store references so that they do not change in parallel
-		ColumnarExampleTable newColumnsRef = this.newColumns;
-		AbstractTableAccessor tableAccessorRef = this.tableAccessor;
-		ColumnarExampleTable convertedTableRef = this.convertedTable;
-		if (convertedTableRef != null) {
-			return convertedTableRef.getAttributes();
-		}
-		if (newColumnsRef == null) {
-			return tableAccessorRef.getAttributes();
-		}
-		Attribute[] newAttributes = newColumnsRef.getAttributes();
-		Attribute[] tableAttributes = tableAccessorRef.getAttributes();
-		Attribute[] attributes = Arrays.copyOf(tableAttributes, tableAttributes.length + newAttributes.length);
-		for (int i = 0; i < newAttributes.length; i++) {
-			Attribute newAttribute = newAttributes[i];
-			if (newAttribute != null) {
-				newAttribute = (Attribute) newAttribute.clone();
-				newAttribute.setTableIndex(originalWidth + newAttribute.getTableIndex());
-			}
-			attributes[i + originalWidth] = newAttribute;
+		// store reference so that it does not change in parallel
+		State current = state;
+		if (current.convertedTable != null) {
+			return current.convertedTable.getAttributes();
+		}
+		// the attributes of the belt columns are handed out as they are, like in other example tables, so that renaming
+		// them renames the column. The attributes of added columns are copied on every call since the copies with the
+		// shifted table index in the snapshot are shared by all callers and used for looking up attributes.
+		Attribute[] attributes = getSnapshot(current).attributes.clone();
+		for (int i = originalWidth; i < attributes.length; i++) {
+			if (attributes[i] != null) {
+				attributes[i] = (Attribute) attributes[i].clone();
+			}
 		}
 		return attributes;
 	}
 
 	@Override
 	public Attribute getAttribute(int i) {
-		// store references so that they do not change in parallel
-		ColumnarExampleTable newColumnsRef = this.newColumns;
-		AbstractTableAccessor tableAccessorRef = this.tableAccessor;
-		ColumnarExampleTable convertedTableRef = this.convertedTable;
-		if (convertedTableRef != null) {
-			return convertedTableRef.getAttribute(i);
+		// store reference so that it does not change in parallel
+		State current = state;
+		if (current.convertedTable != null) {
+			return current.convertedTable.getAttribute(i);
 		}
-		if (newColumnsRef == null || i < originalWidth) {
-			return tableAccessorRef.getAttribute(i);
+		if (current.newColumns == null || i < originalWidth) {
+			return current.tableAccessor.getAttribute(i);
 		}
-		Attribute attribute = newColumnsRef.getAttribute(i - originalWidth);
-		attribute = (Attribute) attribute.clone();
-		attribute.setTableIndex(attribute.getTableIndex() + originalWidth);
-		return attribute;
+		// copied since the snapshot is shared, see getAttributes()
+		Attribute attribute = getSnapshot(current).attributes[i];
+		return attribute == null ? null : (Attribute) attribute.clone();
 	}
 
 	@Override
 	public Attribute findAttribute(String s) throws OperatorException {
-		// store references so that they do not change in parallel
-		ColumnarExampleTable newColumnsRef = this.newColumns;
-		AbstractTableAccessor tableAccessorRef = this.tableAccessor;
-		ColumnarExampleTable convertedTableRef = this.convertedTable;
-		if (convertedTableRef != null) {
-			return convertedTableRef.findAttribute(s);
+		// store reference so that it does not change in parallel
+		State current = state;
+		if (current.convertedTable != null) {
+			return current.convertedTable.findAttribute(s);
 		}
-		if (newColumnsRef == null) {
-			return tableAccessorRef.findAttribute(s);
+		if (current.newColumns == null || s == null) {
+			return current.tableAccessor.findAttribute(s);
 		}
-		try {
-			return tableAccessorRef.findAttribute(s);
-		} catch (AttributeNotFoundError e) {
-			Attribute attribute = newColumnsRef.findAttribute(s);
-			attribute = (Attribute) attribute.clone();
-			attribute.setTableIndex(attribute.getTableIndex() + originalWidth);
-			return attribute;
+		Attribute attribute = getSnapshot(current).find(s);
+		if (attribute == null) {
+			throw new AttributeNotFoundError(null, null, s);
 		}
+		// copied since the snapshot is shared, see getAttributes()
+		return attribute.getTableIndex() < originalWidth ? attribute : (Attribute) attribute.clone();
 	}
 
 	@Override
 	public int getNumberOfAttributes() {
-		// store references so that they do not change in parallel
-		ColumnarExampleTable newColumnsRef = this.newColumns;
-		ColumnarExampleTable convertedTableRef = this.convertedTable;
-		if (convertedTableRef != null) {
-			return convertedTableRef.getNumberOfAttributes();
+		// store reference so that it does not change in parallel
+		State current = state;
+		if (current.convertedTable != null) {
+			return current.convertedTable.getNumberOfAttributes();
 		}
-		if (newColumnsRef == null) {
+		if (current.newColumns == null) {
 			return originalWidth;
 		}
-		return originalWidth + newColumnsRef.getNumberOfAttributes();
+		return originalWidth + current.newColumns.getNumberOfAttributes();
 	}
 
 	@Override
 	public int getAttributeCount() {
-		// store references so that they do not change in parallel
-		AbstractTableAccessor tableAccessorRef = this.tableAccessor;
-		ColumnarExampleTable newColumnsRef = this.newColumns;
-		ColumnarExampleTable convertedTableRef = this.convertedTable;
-		if (convertedTableRef != null) {
-			return convertedTableRef.getAttributeCount();
+		// store reference so that it does not change in parallel
+		State current = state;
+		if (current.convertedTable != null) {
+			return current.convertedTable.getAttributeCount();
 		}
-		if (newColumnsRef == null) {
-			return originalWidth - tableAccessorRef.getUnused();
+		if (current.newColumns == null) {
+			return originalWidth - current.tableAccessor.getUnused();
 		}
-		return originalWidth - tableAccessorRef.getUnused() + newColumnsRef.getAttributeCount();
+		return getSnapshot(current).count;
 	}
 
 	// the following 6 methods are the same as in {@link AbstractExampleTable}
@@ -532,118 +577,717 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 
 	@Override
 	public ExampleTable columnCleanupClone(Attributes attributes) {
-		return cleanup(newColumns, tableAccessor, convertedTable, attributes);
+		return cleanup(state, attributes);
 	}
 
 	/**
-	 * @return the underlying belt table if it still exists
+	 * @return the underlying belt table if it still exists, also after the table was converted unless it was
+	 * deserialized afterwards
 	 */
 	Table getTable() {
-		AbstractTableAccessor accessor = tableAccessor;
-		if (accessor != null) {
-			return accessor.getTable();
+		State current = state;
+		if (current.tableAccessor != null) {
+			return current.tableAccessor.getTable();
 		}
-		return null;
+		return current.originalTable;
+	}
+
+	/**
+	 * @return whether the whole table was converted
+	 */
+	boolean isConverted() {
+		return state.convertedTable != null;
 	}
 
 	/**
 	 * @return the example table of additional columns
 	 */
-	ColumnarExampleTable getNewColumns() {
-		return newColumns;
+	TypedExampleTable getNewColumns() {
+		return state.newColumns;
+	}
+
+	/**
+	 * Adds the attribute together with all its values at once instead of writing them row by row. The array is not
+	 * copied for numeric attributes, so it must not be changed afterwards.
+	 *
+	 * @param attribute
+	 * 		the attribute to add, its table index is set
+	 * @param values
+	 * 		the legacy values, one for every row
+	 * @return the table index of the attribute
+	 * @throws IllegalArgumentException
+	 * 		if the number of values does not match the number of rows
+	 */
+	int addColumn(Attribute attribute, double[] values) {
+		checkHeight(values.length);
+		return addColumn(attribute, TypedExampleTable.newTypedColumn(attribute, values));
+	}
+
+	/**
+	 * Adds the attribute together with the values of the belt column. As long as the values are not changed, the
+	 * belt column is used as it is when converting back to a belt table. The values of nominal columns are added to
+	 * the mapping of the attribute.
+	 *
+	 * @param attribute
+	 * 		the nominal or numeric attribute to add, its table index is set
+	 * @param column
+	 * 		a nominal column for a nominal attribute or a real or integer column for a numeric attribute
+	 * @return the table index of the attribute
+	 * @throws IllegalArgumentException
+	 * 		if the size of the column does not match the number of rows or if the column type does not match the
+	 * 		attribute
+	 */
+	int addColumn(Attribute attribute, Column column) {
+		checkHeight(column.size());
+		return addColumn(attribute, TypedExampleTable.newTypedColumn(attribute, column));
+	}
+
+	/**
+	 * Checks whether the belt column at the given index was written so that its values differ from the underlying
+	 * belt table. Writes are tracked also after the whole table was converted.
+	 *
+	 * @param columnIndex
+	 * 		the index of the belt column
+	 * @return {@code true} if the column was written
+	 */
+	boolean isModified(int columnIndex) {
+		State current = state;
+		if (current.convertedTable != null) {
+			LegacyColumn column = current.convertedTable.getColumn(columnIndex);
+			return !(column instanceof TrackingColumn) || ((TrackingColumn) column).modified;
+		}
+		LegacyColumn[] writtenColumns = current.writtenColumns;
+		WriteOverlay[] overlays = current.overlays;
+		if (writtenColumns != null && writtenColumns[columnIndex] != null
+				|| overlays != null && overlays[columnIndex] != null) {
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the attribute snapshot matching the attributes of the state, reusing the cached one if no attributes were
+	 * added or removed since it was created. Must only be called if the state is not converted.
+	 */
+	private AttributeSnapshot getSnapshot(State current) {
+		List<Attribute> tableAttributes = current.tableAccessor.getAttributeList();
+		Attribute[] newAttributes = current.newColumns == null ? null : current.newColumns.getAttributeArray();
+		AttributeSnapshot cached = snapshot;
+		if (cached == null || cached.tableAttributes != tableAttributes || cached.newAttributes != newAttributes) {
+			cached = new AttributeSnapshot(tableAttributes, newAttributes, originalWidth);
+			snapshot = cached;
+		}
+		return cached;
 	}
 
 	/**
-	 * Before we can serialize, we need to get rid of the {@link #tableAccessor} since it contains a belt {@link Table}
-	 * which cannot be written with standard java serialization.
+	 * The table accessor contains a belt {@link Table} which cannot be written with standard java serialization.
+	 * Therefore, the belt table is written via the {@link ColumnarTableSerializer} together with the attributes, the
+	 * written columns, the overlays and the new columns. The columns of removed attributes and the written belt
+	 * columns are skipped. Only if the belt table contains advanced columns, the table is converted and the converted
+	 * table is written. The parts of the state are taken while holding the {@link #writeLock} but written afterwards,
+	 * so that the table can be read and changed while it is streamed.
 	 */
 	private void writeObject(ObjectOutputStream oos) throws IOException {
-		if (tableAccessor != null) {
-			convert();
+		State current;
+		boolean[] skip = null;
+		List<Attribute> attributes = null;
+		WriteOverlay[] overlays = null;
+		lock(writeLock);
+		try {
+			current = state;
+			if (current.tableAccessor != null) {
+				skip = skippedColumns(current);
+				if (ColumnarTableSerializer.canWrite(current.tableAccessor.getTable(), skip)) {
+					attributes = new ArrayList<>(current.tableAccessor.getAttributeList());
+					overlays = copyOverlays(current.overlays);
+				}
+			}
+		} finally {
+			writeLock.unlock();
 		}
 		oos.defaultWriteObject(); // Calling the default serialization logic
+		if (attributes == null) {
+			oos.writeBoolean(true);
+			oos.writeObject(convert(ConvertOnWriteStatistics.Trigger.SERIALIZATION));
+			return;
+		}
+		oos.writeBoolean(false);
+		oos.writeObject(attributes);
+		oos.writeObject(current.writtenColumns);
+		oos.writeObject(overlays);
+		oos.writeObject(current.newColumns);
+		ColumnarTableSerializer.write(current.tableAccessor.getTable(), skip, oos, context);
+	}
 
+	/**
+	 * @return independent copies of the non-{@code null} overlays so that they do not change while they are written
+	 */
+	private static WriteOverlay[] copyOverlays(WriteOverlay[] overlays) {
+		if (overlays == null) {
+			return null;
+		}
+		WriteOverlay[] copies = new WriteOverlay[overlays.length];
+		for (int i = 0; i < overlays.length; i++) {
+			if (overlays[i] != null) {
+				copies[i] = overlays[i].copy();
+			}
+		}
+		return copies;
 	}
 
 	/**
-	 * Creates the new columns table
+	 * Reads the table written by {@link #writeObject(ObjectOutputStream)}, either the converted table or the parts of
+	 * the unconverted state. Tables written by the first version of this class only contain the converted table in
+	 * the {@link #convertedTable} field which is copied into a {@link CompactExampleTable}.
 	 */
-	private void createNewColumns() {
-		synchronized (newColumnsTableLock) {
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+		if (formatVersion == 0) {
+			if (convertedTable == null) {
+				throw new InvalidObjectException("Missing converted table");
+			}
+			state = State.converted(fromLegacyTable(convertedTable), null);
+			return;
+		}
+		if (ois.readBoolean()) {
+			state = State.converted((CompactExampleTable) ois.readObject(), null);
+			return;
+		}
+		List<Attribute> attributes = (List<Attribute>) ois.readObject();
+		LegacyColumn[] writtenColumns = (LegacyColumn[]) ois.readObject();
+		WriteOverlay[] overlays = (WriteOverlay[]) ois.readObject();
+		TypedExampleTable newColumns = (TypedExampleTable) ois.readObject();
+		Table table = ColumnarTableSerializer.read(ois);
+		int dateTimeCount = 0;
+		for (Column column : table.getColumns()) {
+			if (column.type().id() == Column.TypeId.DATE_TIME) {
+				dateTimeCount++;
+			}
+		}
+		int unused = 0;
+		for (Attribute attribute : attributes) {
+			if (attribute == null) {
+				unused++;
+			}
+		}
+		AbstractTableAccessor tableAccessor;
+		if (dateTimeCount > 0) {
+			tableAccessor = new MixedTableAccessor(table, attributes, dateTimeCount, unused);
+		} else {
+			tableAccessor = new NumericTableAccessor(table, attributes, unused);
+		}
+		state = new State(tableAccessor, newColumns, writtenColumns, overlays, null);
+	}
+
+	/**
+	 * @return which belt columns do not need to be written because their attribute was removed or their values are
+	 * in a written column
+	 */
+	private boolean[] skippedColumns(State current) {
+		boolean[] skip = new boolean[originalWidth];
+		for (int i = 0; i < originalWidth; i++) {
+			skip[i] = current.tableAccessor.getAttribute(i) == null
+					|| current.writtenColumns != null && current.writtenColumns[i] != null;
+		}
+		return skip;
+	}
+
+	/**
+	 * Replaces the deserialized table by a copy since the transient locks are not restored by deserialization.
+	 */
+	private Object readResolve() {
+		// tables written by the first version of this class have no pre-conversion
+		TableViewCreator.PreConversion resolvedPreConversion =
+				preConversion == null ? TableViewCreator.PreConversion.NONE : preConversion;
+		return new ConvertOnWriteExampleTable(state, originalWidth, height, context, resolvedPreConversion);
+	}
+
+	/**
+	 * Copies the converted table written by the first version of this class into a compact table. The attributes keep
+	 * their table indices so that example sets referencing them stay valid.
+	 */
+	private static CompactExampleTable fromLegacyTable(ExampleTable legacyTable) {
+		int legacyHeight = legacyTable.size();
+		Attribute[] attributes = legacyTable.getAttributes();
+		CompactExampleTable table = new CompactExampleTable(Collections.emptyList(), legacyHeight);
+		table.ensureNumberOfAttributes(attributes.length);
+		LegacyColumn[] columns = new LegacyColumn[attributes.length];
+		for (int i = 0; i < attributes.length; i++) {
+			if (attributes[i] != null) {
+				columns[i] = CompactExampleTable.newExclusiveColumn(attributes[i], legacyHeight);
+			}
+		}
+		DataRowReader reader = legacyTable.getDataRowReader();
+		for (int row = 0; row < legacyHeight && reader.hasNext(); row++) {
+			DataRow dataRow = reader.next();
+			for (int i = 0; i < columns.length; i++) {
+				if (columns[i] != null) {
+					columns[i].set(row, dataRow.get(attributes[i]));
+				}
+			}
+		}
+		for (int i = 0; i < columns.length; i++) {
+			if (columns[i] != null) {
+				CompactExampleTable.endExclusiveWrites(columns[i]);
+				table.setColumn(attributes[i], columns[i]);
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Adds a clone of the attribute to the new columns table, creating it if necessary, and shifts the table index of
+	 * the attribute. Must be called while holding the {@link #readLock}.
+	 */
+	private int addNewColumn(Attribute attribute) {
+		TypedExampleTable newColumns = state.newColumns;
+		if (newColumns == null) {
+			newColumns = createNewColumns();
+		}
+		int shiftedIndex = newColumns.addAttribute((Attribute) attribute.clone()) + originalWidth;
+		attribute.setTableIndex(shiftedIndex);
+		return shiftedIndex;
+	}
+
+	/**
+	 * Adds the attribute together with the column to the converted table or a clone of it to the new columns table.
+	 */
+	private int addColumn(Attribute attribute, LegacyColumn column) {
+		lock(readLock);
+		try {
+			State current = state;
+			if (current.convertedTable != null) {
+				return current.convertedTable.addColumn(attribute, column);
+			}
+			TypedExampleTable newColumns = current.newColumns;
 			if (newColumns == null) {
-				ColumnarExampleTable newColumnsRef = new ColumnarExampleTable(new ArrayList<>());
-				newColumnsRef.setExpectedSize(size());
-				newColumnsRef.addBlankRows(size());
-				this.newColumns = newColumnsRef;
+				newColumns = createNewColumns();
 			}
+			int shiftedIndex = newColumns.addColumn((Attribute) attribute.clone(), column) + originalWidth;
+			attribute.setTableIndex(shiftedIndex);
+			return shiftedIndex;
+		} finally {
+			readLock.unlock();
 		}
 	}
 
 	/**
-	 * Converts to one columnar example table containing the belt table values and the new columns.
+	 * Checks that the given number of values matches the number of rows.
 	 */
-	private void convert() {
-		writeLock.lock();
+	private void checkHeight(int length) {
+		if (length != height) {
+			throw new IllegalArgumentException("Number of values " + length + " does not match number of rows " +
+					height);
+		}
+	}
+
+	/**
+	 * Creates the new columns table if it does not exist yet. There can only be one.
+	 */
+	private TypedExampleTable createNewColumns() {
+		synchronized (stateLock) {
+			State current = state;
+			if (current.newColumns != null) {
+				return current.newColumns;
+			}
+			TypedExampleTable newColumns = new TypedExampleTable(new ArrayList<>(), height, spillThreshold());
+			state = new State(current.tableAccessor, newColumns, current.writtenColumns, current.overlays, null);
+			return newColumns;
+		}
+	}
+
+	/**
+	 * Converts to one compact example table containing the belt table values and the new columns. The belt columns
+	 * are converted from a snapshot of the state without holding the {@link #writeLock}, so that other threads can
+	 * keep reading, writing and adding columns in the meantime. Only taking over the columns written in the meantime,
+	 * the overlays and the new columns happens under the {@link #writeLock}. Readers see the old state until the
+	 * converted table is complete.
+	 *
+	 * @return the converted table
+	 */
+	private CompactExampleTable convert(ConvertOnWriteStatistics.Trigger trigger) {
+		lock(convertLock);
 		try {
-			if (convertedTable == null) {
-				ColumnarExampleTable newConvertedTable = FromTableConverter.convert(tableAccessor.getTable(), tableAccessor.getAttributes());
-				ColumnarExampleTable newColumnsRef = newColumns;
-				if (newColumnsRef != null) {
-					List<Attribute> dummyAttributes = new ArrayList<>();
-					// add dummy attributes to prevent adding into the holes of the table accessor attributes,
-					// addAttribute fills holes first before adding at the end
-					for (int i = 0; i < tableAccessor.getUnused(); i++) {
-						Attribute dummy = AttributeFactory.createAttribute("", Ontology.NUMERICAL);
-						newConvertedTable.addAttribute(dummy);
-						dummyAttributes.add(dummy);
-					}
-					for (Attribute attribute : newColumnsRef.getAttributes()) {
-						if (attribute != null) {
-							Attribute clone = (Attribute) attribute.clone();
-							newConvertedTable.addAttribute(clone);
-							newConvertedTable.fillColumn(clone, j -> newColumnsRef.getDataRow(j).get(attribute));
-						} else {
-							//add dummy attribute to keep table indices
-							Attribute dummy = AttributeFactory.createAttribute("", Ontology.NUMERICAL);
-							newConvertedTable.addAttribute(dummy);
-							dummyAttributes.add(dummy);
-						}
-					}
-					if (!dummyAttributes.isEmpty()) {
-						for (Attribute dummy : dummyAttributes) {
-							newConvertedTable.removeAttribute(dummy);
-						}
+			State snapshot = state;
+			if (snapshot.convertedTable != null) {
+				return snapshot.convertedTable;
+			}
+			if (ConvertOnWriteStatistics.ENABLED) {
+				ConvertOnWriteStatistics.INSTANCE.conversion(trigger);
+			}
+			// belt columns are immutable, so the snapshot can be converted while the state changes
+			AbstractTableAccessor snapshotAccessor = snapshot.tableAccessor;
+			LegacyColumn[] snapshotWritten = snapshot.writtenColumns;
+			Attribute[] attributes = snapshotAccessor.getAttributes();
+			if (snapshotWritten != null) {
+				// the written columns are already converted
+				for (int i = 0; i < snapshotWritten.length; i++) {
+					if (snapshotWritten[i] != null) {
+						attributes[i] = null;
 					}
+				}
+			}
+			CompactExampleTable newConvertedTable =
+					FromTableConverter.convert(snapshotAccessor.getTable(), attributes, context);
+			lock(writeLock);
+			try {
+				complete(newConvertedTable, state);
+				return newConvertedTable;
+			} finally {
+				writeLock.unlock();
+			}
+		} finally {
+			convertLock.unlock();
+		}
+	}
 
+	/**
+	 * Adjusts the table converted from an older state to the current state and replaces the state by the converted
+	 * one. Belt columns can only be removed or written since the snapshot, so the converted copies of removed or newly
+	 * written belt columns are dropped. Must be called while holding the {@link #writeLock}.
+	 */
+	private void complete(CompactExampleTable newConvertedTable, State current) {
+		AbstractTableAccessor accessor = current.tableAccessor;
+		LegacyColumn[] writtenColumns = current.writtenColumns;
+		for (int i = 0; i < originalWidth; i++) {
+			Attribute attribute = accessor.getAttribute(i);
+			LegacyColumn writtenColumn = writtenColumns != null ? writtenColumns[i] : null;
+			if ((attribute == null || writtenColumn != null) && newConvertedTable.getColumn(i) != null) {
+				newConvertedTable.removeAttribute(i);
+			}
+			if (attribute != null && writtenColumn != null) {
+				newConvertedTable.setColumn(attribute, writtenColumn);
+			}
+		}
+		WriteOverlay[] overlays = current.overlays;
+		if (overlays != null) {
+			for (int i = 0; i < overlays.length; i++) {
+				LegacyColumn column = newConvertedTable.getColumn(i);
+				if (overlays[i] != null && column != null) {
+					overlays[i].copyTo(column);
+				}
+			}
+		}
+		// track writes into the columns that still have the values of the belt table
+		LegacyColumn[] tracked = new LegacyColumn[originalWidth];
+		for (int i = 0; i < originalWidth; i++) {
+			if ((writtenColumns == null || writtenColumns[i] == null) && (overlays == null || overlays[i] == null)) {
+				LegacyColumn column = newConvertedTable.getColumn(i);
+				if (column != null) {
+					tracked[i] = new TrackingColumn(column);
 				}
-				convertedTable = newConvertedTable;
-				tableAccessor = null;
-				newColumns = null;
+			}
+		}
+		newConvertedTable.replaceColumns(tracked);
+		TypedExampleTable newColumns = current.newColumns;
+		if (newColumns != null) {
+			Attribute[] newAttributes = newColumns.getAttributes();
+			for (int i = 0; i < newAttributes.length; i++) {
+				if (newAttributes[i] != null) {
+					Attribute clone = (Attribute) newAttributes[i].clone();
+					clone.setTableIndex(originalWidth + i);
+					// take over the column itself so that values written in parallel are not lost
+					newConvertedTable.setColumn(clone, newColumns.getColumn(i));
+				}
+			}
+			// keep the table indices of removed new columns unused
+			newConvertedTable.ensureNumberOfAttributes(originalWidth + newAttributes.length);
+		}
+		state = State.converted(newConvertedTable, accessor.getTable());
+	}
+
+	/**
+	 * Sets a value either in the newColumns, in the overlay or converted copy of a belt column or in the convertedTable.
+	 * Converts the whole table only if the value cannot be set otherwise. Writing into the newColumns takes no lock,
+	 * since {@link #convert(ConvertOnWriteStatistics.Trigger)} takes over their columns so that the value ends up in the
+	 * converted table in any case.
+	 *
+	 * @return whether the whole table was converted so that the belt readers are not needed anymore
+	 */
+	private boolean setValue(int columnIndex, int row, double value) {
+		State current = state;
+		if (current.convertedTable == null && columnIndex >= originalWidth && current.newColumns != null) {
+			current.newColumns.getColumn(columnIndex - originalWidth).set(row, value);
+			return false;
+		}
+		lock(readLock);
+		try {
+			if (state.convertedTable == null && columnIndex < originalWidth) {
+				setBeltValue(columnIndex, row, value);
+				return false;
 			}
 		} finally {
-			writeLock.unlock();
+			readLock.unlock();
+		}
+		CompactExampleTable convertedTable = state.convertedTable;
+		if (convertedTable == null) {
+			convertedTable = convert(ConvertOnWriteStatistics.Trigger.SET);
 		}
+		convertedTable.getColumn(columnIndex).set(row, value);
+		return true;
 	}
 
 	/**
-	 * Gets a value either from the convertedTable, or from the belt table using the beltReader or from the newColumns.
+	 * Sets a value of the belt column at the given index. The value is stored in the overlay of the column as long as
+	 * the overlay is below the {@link #overlayLimit}, otherwise the column is converted. Must be called while holding
+	 * the {@link #readLock} so that the table is not converted in parallel.
+	 */
+	private void setBeltValue(int columnIndex, int row, double value) {
+		LegacyColumn[] writtenColumns = state.writtenColumns;
+		if (writtenColumns != null && writtenColumns[columnIndex] != null) {
+			writtenColumns[columnIndex].set(row, value);
+			return;
+		}
+		synchronized (stateLock) {
+			State current = state;
+			writtenColumns = current.writtenColumns;
+			if (writtenColumns != null && writtenColumns[columnIndex] != null) {
+				writtenColumns[columnIndex].set(row, value);
+				return;
+			}
+			WriteOverlay[] overlays = current.overlays;
+			WriteOverlay overlay = overlays != null ? overlays[columnIndex] : null;
+			if (overlay == null && overlayLimit > 0) {
+				overlay = new WriteOverlay();
+				WriteOverlay[] newOverlays = overlays != null ? overlays.clone() : new WriteOverlay[originalWidth];
+				newOverlays[columnIndex] = overlay;
+				state = new State(current.tableAccessor, current.newColumns, writtenColumns, newOverlays, null);
+				overlay.put(row, value);
+				if (preConversion == TableViewCreator.PreConversion.ON_FIRST_WRITE) {
+					runInBackground(() -> preconvertColumn(columnIndex));
+				}
+				return;
+			}
+			if (overlay != null && (overlay.size() < overlayLimit || overlay.contains(row))) {
+				overlay.put(row, value);
+				return;
+			}
+
+			// too many values for the overlay, convert the column
+			LegacyColumn column = convertColumn(current.tableAccessor.getAttribute(columnIndex),
+					current.tableAccessor, columnIndex);
+			column.set(row, value);
+			replaceByConverted(current, columnIndex, column);
+		}
+	}
+
+	/**
+	 * Replaces the belt column by its converted copy, after copying the values of the overlay into it. Must be called
+	 * while holding the {@link #stateLock}.
+	 */
+	private void replaceByConverted(State current, int columnIndex, LegacyColumn column) {
+		WriteOverlay[] overlays = current.overlays;
+		WriteOverlay[] newOverlays = overlays;
+		if (overlays != null && overlays[columnIndex] != null) {
+			overlays[columnIndex].copyTo(column);
+			newOverlays = overlays.clone();
+			newOverlays[columnIndex] = null;
+		}
+		LegacyColumn[] writtenColumns = current.writtenColumns;
+		LegacyColumn[] newWrittenColumns = writtenColumns != null ? writtenColumns.clone() :
+				new LegacyColumn[originalWidth];
+		newWrittenColumns[columnIndex] = column;
+		// replace column and overlay at once so that readers see the written values all the time
+		state = new State(current.tableAccessor, current.newColumns, newWrittenColumns, newOverlays, null);
+	}
+
+	/**
+	 * Starts converting the whole table in the background. Reading and writing is possible in the meantime.
+	 */
+	void convertInBackground() {
+		runInBackground(() -> convert(ConvertOnWriteStatistics.Trigger.BACKGROUND));
+	}
+
+	/**
+	 * Converts the belt column in the background thread without holding any lock and then replaces it by the
+	 * converted copy, unless it was converted, written densely or removed in the meantime. Values written into the
+	 * overlay until then are copied into the converted column.
+	 */
+	private void preconvertColumn(int columnIndex) {
+		State snapshot = state;
+		if (!isUnconvertedColumn(snapshot, columnIndex)) {
+			return;
+		}
+		Attribute attribute = snapshot.tableAccessor.getAttribute(columnIndex);
+		if (attribute == null) {
+			// removed in the meantime
+			return;
+		}
+		LegacyColumn column = convertColumn(attribute, snapshot.tableAccessor, columnIndex);
+		lock(readLock);
+		try {
+			synchronized (stateLock) {
+				State current = state;
+				if (isUnconvertedColumn(current, columnIndex)) {
+					replaceByConverted(current, columnIndex, column);
+				}
+			}
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * @return whether the table is not converted and the belt column is neither removed nor replaced by its converted
+	 * copy
+	 */
+	private static boolean isUnconvertedColumn(State current, int columnIndex) {
+		return current.convertedTable == null && current.tableAccessor.getAttribute(columnIndex) != null
+				&& (current.writtenColumns == null || current.writtenColumns[columnIndex] == null);
+	}
+
+	/**
+	 * Runs the task with the context without waiting for it. If there is no context, the task is not run. In both
+	 * cases, if the task does not complete, the conversion happens on demand as without background conversion.
+	 */
+	private void runInBackground(Runnable task) {
+		ConcurrencyContext backgroundContext = context;
+		if (backgroundContext != null) {
+			backgroundContext.submit(Collections.<Callable<Void>>singletonList(() -> {
+				task.run();
+				return null;
+			}));
+		}
+	}
+
+	/**
+	 * Removes the belt column at the given index by marking it as unused in the table accessor and drops its overlay or
+	 * converted copy. Must be called while holding the {@link #readLock} so that the table is not converted in
+	 * parallel.
+	 */
+	private void removeBeltColumn(int columnIndex) {
+		synchronized (stateLock) {
+			State current = state;
+			current.tableAccessor.remove(columnIndex);
+			LegacyColumn[] writtenColumns = current.writtenColumns;
+			if (writtenColumns != null && writtenColumns[columnIndex] != null) {
+				writtenColumns = writtenColumns.clone();
+				writtenColumns[columnIndex] = null;
+			}
+			WriteOverlay[] overlays = current.overlays;
+			if (overlays != null && overlays[columnIndex] != null) {
+				overlays = overlays.clone();
+				overlays[columnIndex] = null;
+			}
+			if (writtenColumns != current.writtenColumns || overlays != current.overlays) {
+				state = new State(current.tableAccessor, current.newColumns, writtenColumns, overlays, null);
+			}
+		}
+	}
+
+	/**
+	 * Copies the values of the belt column at the given index into a new column of the kind used by the {@link
+	 * CompactExampleTable}.
+	 */
+	private LegacyColumn convertColumn(Attribute attribute, AbstractTableAccessor accessor, int columnIndex) {
+		// the column is filled before it is published, so the writes need no lock
+		LegacyColumn column = CompactExampleTable.newExclusiveColumn(attribute, height);
+		Object readers = accessor.getReaders();
+		for (int row = 0; row < height; row++) {
+			column.set(row, accessor.get(row, columnIndex, readers));
+		}
+		CompactExampleTable.endExclusiveWrites(column);
+		return column;
+	}
+
+	/**
+	 * Gets a value either from the convertedTable, or from the belt table using the beltReader, from the overlay or
+	 * converted copy of a written belt column or from the newColumns.
 	 */
 	private double getValue(int columnIndex, int currentRow, Object beltReader) {
-		// store references so that they do not change in parallel
-		ColumnarExampleTable newColumnsRef = this.newColumns;
-		AbstractTableAccessor tableAccessorRef = this.tableAccessor;
-		ColumnarExampleTable convertedTableRef = this.convertedTable;
-		if (convertedTableRef != null) {
-			return convertedTableRef.getDataRow(currentRow).get(convertedTableRef.getAttribute(columnIndex));
+		// store reference so that it does not change in parallel
+		State current = state;
+		if (ConvertOnWriteStatistics.ENABLED) {
+			countRead(current, columnIndex);
+		}
+		if (current.convertedTable != null) {
+			return current.convertedTable.getColumn(columnIndex).get(currentRow);
 		}
 		if (columnIndex < originalWidth) {
-			return tableAccessorRef.get(currentRow, columnIndex, beltReader);
+			LegacyColumn[] writtenColumns = current.writtenColumns;
+			if (writtenColumns != null && writtenColumns[columnIndex] != null) {
+				return writtenColumns[columnIndex].get(currentRow);
+			}
+			double value = current.tableAccessor.get(currentRow, columnIndex, beltReader);
+			WriteOverlay[] overlays = current.overlays;
+			if (overlays != null && overlays[columnIndex] != null) {
+				return overlays[columnIndex].get(currentRow, value);
+			}
+			return value;
 		}
-		return newColumnsRef.getDataRow(currentRow).get(newColumnsRef.getAttribute(columnIndex - originalWidth));
+		return current.newColumns.getColumn(columnIndex - originalWidth).get(currentRow);
 	}
 
 	/**
-	 * Gets a reader or {@code null} if {@link #convert()} has already been called.
+	 * Counts a read of the column in the {@link ConvertOnWriteStatistics}.
+	 */
+	private void countRead(State current, int columnIndex) {
+		if (current.convertedTable != null) {
+			ConvertOnWriteStatistics.INSTANCE.convertedRead();
+		} else if (columnIndex < originalWidth) {
+			ConvertOnWriteStatistics.INSTANCE.beltRead();
+		} else {
+			ConvertOnWriteStatistics.INSTANCE.newColumnRead();
+		}
+	}
+
+	/**
+	 * Acquires the lock, recording the waiting time in the {@link ConvertOnWriteStatistics} if enabled.
+	 */
+	private static void lock(Lock lock) {
+		if (ConvertOnWriteStatistics.ENABLED) {
+			long start = System.nanoTime();
+			lock.lock();
+			ConvertOnWriteStatistics.INSTANCE.lockWait(System.nanoTime() - start);
+		} else {
+			lock.lock();
+		}
+	}
+
+	/**
+	 * Reads the {@link #PROPERTY_OVERLAY_DENSITY} and calculates the maximal number of values in an overlay for the
+	 * given height.
+	 */
+	private static int overlayLimit(int height) {
+		double density = DEFAULT_OVERLAY_DENSITY;
+		String property = System.getProperty(PROPERTY_OVERLAY_DENSITY);
+		if (property != null) {
+			try {
+				double parsed = Double.parseDouble(property);
+				if (parsed >= 0 && parsed <= 1) {
+					density = parsed;
+				}
+			} catch (NumberFormatException e) {
+				// use the default density
+			}
+		}
+		return (int) (density * height);
+	}
+
+	/**
+	 * Reads the {@link #PROPERTY_SPILL_THRESHOLD}.
+	 *
+	 * @return the threshold or {@code 0} if columns should not be memory-mapped
+	 */
+	private static double spillThreshold() {
+		String property = System.getProperty(PROPERTY_SPILL_THRESHOLD);
+		if (property != null) {
+			try {
+				double parsed = Double.parseDouble(property);
+				if (parsed > 0 && parsed <= 1) {
+					return parsed;
+				}
+			} catch (NumberFormatException e) {
+				// do not memory-map
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets a reader or {@code null} if {@link #convert(ConvertOnWriteStatistics.Trigger)} has already been called.
 	 */
 	private static Object getReader(AbstractTableAccessor tableAccessor) {
 		if (tableAccessor != null) {
@@ -653,7 +1297,8 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 	}
 
 	/**
-	 * Gets an unbuffered reader or {@code null} if {@link #convert()} has already been called.
+	 * Gets an unbuffered reader or {@code null} if {@link #convert(ConvertOnWriteStatistics.Trigger)} has already been
+	 * called.
 	 */
 	private static Object getUnbufferedReader(AbstractTableAccessor wrapperTable) {
 		if (wrapperTable != null) {
@@ -663,18 +1308,18 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 	}
 
 	/**
-	 * Cleans up the columns. Has the volatile variables as parameter so that they do not change in between.
+	 * Cleans up the columns. Has the state as parameter so that it does not change in between.
 	 */
-	private ExampleTable cleanup(ColumnarExampleTable newColumns, AbstractTableAccessor tableWrapper, ColumnarExampleTable convertedTable,
-								 Attributes attributes) {
-		if (convertedTable != null) {
-			ColumnarExampleTable newConvertedTable = convertedTable.columnCleanupClone(attributes);
-			return new ConvertOnWriteExampleTable(null, newConvertedTable, null, originalWidth, height);
+	private ExampleTable cleanup(State current, Attributes attributes) {
+		if (current.convertedTable != null) {
+			CompactExampleTable newConvertedTable = current.convertedTable.columnCleanupClone(attributes);
+			return new ConvertOnWriteExampleTable(State.converted(newConvertedTable, current.originalTable),
+					originalWidth, height, context, preConversion);
 		}
 
-		AbstractTableAccessor newTableWrapper = tableWrapper.columnCleanupClone(attributes);
-		ColumnarExampleTable newNewColumns = null;
-		if (newColumns != null) {
+		AbstractTableAccessor newTableWrapper = current.tableAccessor.columnCleanupClone(attributes);
+		TypedExampleTable newNewColumns = null;
+		if (current.newColumns != null) {
 			//clean up new columns table, requires shifting of attributes
 			Attributes newColumnsAttributes = new SimpleAttributes();
 			for (Iterator<Attribute> allIterator = attributes.allAttributes(); allIterator.hasNext(); ) {
@@ -685,8 +1330,197 @@ class ConvertOnWriteExampleTable implements CleanableExampleTable {
 					newColumnsAttributes.addRegular(shiftedAttribute);
 				}
 			}
-			newNewColumns = newColumns.columnCleanupClone(newColumnsAttributes);
+			newNewColumns = current.newColumns.columnCleanupClone(newColumnsAttributes);
+		}
+		LegacyColumn[] newWrittenColumns = null;
+		if (current.writtenColumns != null) {
+			//keep the written columns that are still used
+			newWrittenColumns = new LegacyColumn[current.writtenColumns.length];
+			for (int i = 0; i < newWrittenColumns.length; i++) {
+				if (newTableWrapper.getAttribute(i) != null) {
+					newWrittenColumns[i] = current.writtenColumns[i];
+				}
+			}
+		}
+		WriteOverlay[] newOverlays = null;
+		if (current.overlays != null) {
+			//copy the overlays that are still used, they are changed when writing
+			newOverlays = new WriteOverlay[current.overlays.length];
+			for (int i = 0; i < newOverlays.length; i++) {
+				if (current.overlays[i] != null && newTableWrapper.getAttribute(i) != null) {
+					newOverlays[i] = current.overlays[i].copy();
+				}
+			}
+		}
+		return new ConvertOnWriteExampleTable(new State(newTableWrapper, newNewColumns, newWrittenColumns, newOverlays,
+				null), originalWidth, height, context, preConversion);
+	}
+
+	/**
+	 * Immutable view of all attributes of an unconverted table. The attributes of new columns are clones with the table
+	 * index shifted by the width of the belt table. They are shared between calls and must be cloned again before
+	 * being handed out since attributes are mutable. The snapshot is identified by the attribute list of the table
+	 * accessor and the attribute array of the new columns it was created from since both are replaced on every change.
+	 */
+	private static final class AttributeSnapshot {
+
+		private final List<Attribute> tableAttributes;
+		private final Attribute[] newAttributes;
+
+		/**
+		 * all attributes by table index, {@code null} for unused indices
+		 */
+		private final Attribute[] attributes;
+
+		/**
+		 * the number of attributes that are not {@code null}
+		 */
+		private final int count;
+
+		/**
+		 * the {@link #attributes} by name, rebuilt by {@link #find(String)} if an attribute was renamed
+		 */
+		private volatile Map<String, Attribute> byName;
+
+		private AttributeSnapshot(List<Attribute> tableAttributes, Attribute[] newAttributes, int originalWidth) {
+			this.tableAttributes = tableAttributes;
+			this.newAttributes = newAttributes;
+			int newWidth = newAttributes == null ? 0 : newAttributes.length;
+			attributes = tableAttributes.toArray(new Attribute[originalWidth + newWidth]);
+			for (int i = 0; i < newWidth; i++) {
+				Attribute newAttribute = newAttributes[i];
+				if (newAttribute != null) {
+					newAttribute = (Attribute) newAttribute.clone();
+					newAttribute.setTableIndex(originalWidth + newAttribute.getTableIndex());
+				}
+				attributes[i + originalWidth] = newAttribute;
+			}
+			int nonNull = 0;
+			for (Attribute attribute : attributes) {
+				if (attribute != null) {
+					nonNull++;
+				}
+			}
+			count = nonNull;
+			byName = AbstractTableAccessor.indexByName(Arrays.asList(attributes));
+		}
+
+		/**
+		 * Finds the attribute with the given name using the name index. The attributes are only searched if the name is
+		 * not in the index, the index is rebuilt if an attribute was renamed.
+		 *
+		 * @return the attribute or {@code null} if there is none with the name
+		 */
+		private Attribute find(String name) {
+			Attribute indexed = byName.get(name);
+			if (indexed != null && indexed.getName().equals(name)) {
+				return indexed;
+			}
+			for (Attribute attribute : attributes) {
+				if (attribute != null && attribute.getName().equals(name)) {
+					byName = AbstractTableAccessor.indexByName(Arrays.asList(attributes));
+					return attribute;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Immutable state of the table. Either only the converted table is set or the table accessor together with the
+	 * optional new columns, converted copies of written belt columns and overlays. Reading the state once gives a
+	 * consistent view on all of them.
+	 */
+	private static final class State {
+
+		/**
+		 * the accessor for the belt table
+		 */
+		private final AbstractTableAccessor tableAccessor;
+
+		/**
+		 * Extra table for adding new columns. We cannot add those to the belt table since in the belt API they are
+		 * immutable and in the example table API they are added first and then filled
+		 */
+		private final TypedExampleTable newColumns;
+
+		/**
+		 * Converted copies of the belt columns that were written, at the index of the belt column and {@code null}
+		 * for the columns that are still read from the belt table.
+		 */
+		private final LegacyColumn[] writtenColumns;
+
+		/**
+		 * Sparse overlays with the values written into belt columns that are not converted yet, at the index of the
+		 * belt column.
+		 */
+		private final WriteOverlay[] overlays;
+
+		/**
+		 * the whole converted table (converted belt table plus newColumns)
+		 */
+		private final CompactExampleTable convertedTable;
+
+		/**
+		 * the belt table the converted table was created from, so that its unmodified columns can be reused when
+		 * converting back. {@code null} if not converted or after deserialization.
+		 */
+		private final Table originalTable;
+
+		private State(AbstractTableAccessor tableAccessor, TypedExampleTable newColumns,
+					  LegacyColumn[] writtenColumns, WriteOverlay[] overlays, CompactExampleTable convertedTable) {
+			this(tableAccessor, newColumns, writtenColumns, overlays, convertedTable, null);
+		}
+
+		private State(AbstractTableAccessor tableAccessor, TypedExampleTable newColumns,
+					  LegacyColumn[] writtenColumns, WriteOverlay[] overlays, CompactExampleTable convertedTable,
+					  Table originalTable) {
+			this.tableAccessor = tableAccessor;
+			this.newColumns = newColumns;
+			this.writtenColumns = writtenColumns;
+			this.overlays = overlays;
+			this.convertedTable = convertedTable;
+			this.originalTable = originalTable;
+		}
+
+		/**
+		 * Creates the state after the conversion.
+		 */
+		private static State converted(CompactExampleTable convertedTable, Table originalTable) {
+			return new State(null, null, null, null, convertedTable, originalTable);
+		}
+	}
+
+	/**
+	 * Column of the converted table that still has the values of the belt column it was converted from, until it is
+	 * written. As long as it is not written, the belt column is reused when converting back.
+	 */
+	private static final class TrackingColumn implements LegacyColumn {
+
+		private static final long serialVersionUID = 3702843512391562209L;
+
+		private final LegacyColumn column;
+
+		/**
+		 * whether a value was written
+		 */
+		private volatile boolean modified;
+
+		private TrackingColumn(LegacyColumn column) {
+			this.column = column;
+		}
+
+		@Override
+		public double get(int row) {
+			return column.get(row);
+		}
+
+		@Override
+		public void set(int row, double value) {
+			if (!modified) {
+				modified = true;
+			}
+			column.set(row, value);
 		}
-		return new ConvertOnWriteExampleTable(newTableWrapper, null, newNewColumns, originalWidth, height);
 	}
-}
\ No newline at end of file
+}
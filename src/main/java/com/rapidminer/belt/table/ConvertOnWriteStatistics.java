@@ -0,0 +1,263 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.lang.management.ManagementFactory;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+
+/**
+ * Counters for the {@link ConvertOnWriteExampleTable}s: full conversions by trigger, values read by source and the
+ * time spent waiting for locks. Every n-th conversion additionally records the stack trace of the triggering thread, so
+ * that operators defeating the zero-copy design can be found. The statistics are only collected if the system property
+ * {@link #PROPERTY_ENABLED} is {@code true} at startup and are then registered as MBean under {@link #OBJECT_NAME}.
+ *
+ * @since 1.0.2
+ */
+final class ConvertOnWriteStatistics implements ConvertOnWriteStatisticsMBean {
+
+	/**
+	 * System property to enable the statistics, read once when the class is loaded.
+	 */
+	static final String PROPERTY_ENABLED = "rapidminer.belt.convert_on_write.statistics";
+
+	/**
+	 * System property for the sampling of the conversion stack traces. Every n-th conversion records its stack trace,
+	 * {@code 0} records none. Defaults to {@code 1} since full conversions should be rare.
+	 */
+	static final String PROPERTY_TRACE_SAMPLING = "rapidminer.belt.convert_on_write.statistics.trace_sampling";
+
+	/**
+	 * The name under which the statistics are registered with the platform MBean server.
+	 */
+	static final String OBJECT_NAME = "com.rapidminer.belt:type=ConvertOnWriteStatistics";
+
+	/**
+	 * whether the statistics are collected
+	 */
+	static final boolean ENABLED = Boolean.getBoolean(PROPERTY_ENABLED);
+
+	/**
+	 * the statistics for all tables, {@code null} if not enabled
+	 */
+	static final ConvertOnWriteStatistics INSTANCE = ENABLED ? register(new ConvertOnWriteStatistics(traceSampling()))
+			: null;
+
+	/**
+	 * the maximal number of stack traces kept
+	 */
+	private static final int MAX_TRACES = 16;
+
+	/**
+	 * What triggered a full conversion.
+	 */
+	enum Trigger {
+		SET, REMOVE_ATTRIBUTE, SERIALIZATION, BACKGROUND
+	}
+
+	private final LongAdder conversionsOnSet = new LongAdder();
+	private final LongAdder conversionsOnRemove = new LongAdder();
+	private final LongAdder conversionsOnSerialization = new LongAdder();
+	private final LongAdder conversionsInBackground = new LongAdder();
+	private final LongAdder beltReads = new LongAdder();
+	private final LongAdder newColumnReads = new LongAdder();
+	private final LongAdder convertedReads = new LongAdder();
+	private final LongAdder lockWaitNanos = new LongAdder();
+
+	/**
+	 * counts all conversions for the sampling
+	 */
+	private final AtomicLong conversions = new AtomicLong();
+
+	private final Deque<String> traces = new ConcurrentLinkedDeque<>();
+
+	private final int traceSampling;
+
+	/**
+	 * Creates new statistics.
+	 *
+	 * @param traceSampling
+	 * 		record the stack trace of every n-th conversion, {@code 0} for none
+	 */
+	ConvertOnWriteStatistics(int traceSampling) {
+		this.traceSampling = traceSampling;
+	}
+
+	/**
+	 * Records a full conversion and its stack trace if it is sampled.
+	 *
+	 * @param trigger
+	 * 		what triggered the conversion
+	 */
+	void conversion(Trigger trigger) {
+		switch (trigger) {
+			case SET:
+				conversionsOnSet.increment();
+				break;
+			case REMOVE_ATTRIBUTE:
+				conversionsOnRemove.increment();
+				break;
+			case SERIALIZATION:
+				conversionsOnSerialization.increment();
+				break;
+			default:
+				conversionsInBackground.increment();
+				break;
+		}
+		long number = conversions.incrementAndGet();
+		if (traceSampling > 0 && number % traceSampling == 0) {
+			StringBuilder trace = new StringBuilder(trigger.toString());
+			for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+				trace.append("\n\tat ").append(element);
+			}
+			traces.addFirst(trace.toString());
+			while (traces.size() > MAX_TRACES) {
+				traces.pollLast();
+			}
+		}
+	}
+
+	/**
+	 * Records a value read from a belt column, its overlay or its converted copy.
+	 */
+	void beltRead() {
+		beltReads.increment();
+	}
+
+	/**
+	 * Records a value read from an added column of an unconverted table.
+	 */
+	void newColumnRead() {
+		newColumnReads.increment();
+	}
+
+	/**
+	 * Records a value read from a converted table.
+	 */
+	void convertedRead() {
+		convertedReads.increment();
+	}
+
+	/**
+	 * Records the time a thread waited for a lock.
+	 *
+	 * @param nanos
+	 * 		the waiting time in nanoseconds
+	 */
+	void lockWait(long nanos) {
+		lockWaitNanos.add(nanos);
+	}
+
+	@Override
+	public long getConversionsOnSet() {
+		return conversionsOnSet.sum();
+	}
+
+	@Override
+	public long getConversionsOnRemove() {
+		return conversionsOnRemove.sum();
+	}
+
+	@Override
+	public long getConversionsOnSerialization() {
+		return conversionsOnSerialization.sum();
+	}
+
+	@Override
+	public long getConversionsInBackground() {
+		return conversionsInBackground.sum();
+	}
+
+	@Override
+	public long getBeltReads() {
+		return beltReads.sum();
+	}
+
+	@Override
+	public long getNewColumnReads() {
+		return newColumnReads.sum();
+	}
+
+	@Override
+	public long getConvertedReads() {
+		return convertedReads.sum();
+	}
+
+	@Override
+	public long getLockWaitNanos() {
+		return lockWaitNanos.sum();
+	}
+
+	@Override
+	public String[] getConversionTraces() {
+		return traces.toArray(new String[0]);
+	}
+
+	@Override
+	public void reset() {
+		conversionsOnSet.reset();
+		conversionsOnRemove.reset();
+		conversionsOnSerialization.reset();
+		conversionsInBackground.reset();
+		beltReads.reset();
+		newColumnReads.reset();
+		convertedReads.reset();
+		lockWaitNanos.reset();
+		conversions.set(0);
+		traces.clear();
+	}
+
+	/**
+	 * Reads the {@link #PROPERTY_TRACE_SAMPLING}.
+	 */
+	private static int traceSampling() {
+		String property = System.getProperty(PROPERTY_TRACE_SAMPLING);
+		if (property != null) {
+			try {
+				int parsed = Integer.parseInt(property);
+				if (parsed >= 0) {
+					return parsed;
+				}
+			} catch (NumberFormatException e) {
+				// use the default sampling
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * Registers the statistics with the platform MBean server. The statistics are collected even if the registration
+	 * fails.
+	 */
+	private static ConvertOnWriteStatistics register(ConvertOnWriteStatistics statistics) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(statistics, new ObjectName(OBJECT_NAME));
+		} catch (JMException | SecurityException e) {
+			// not available via JMX
+		}
+		return statistics;
+	}
+
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+/**
+ * JMX management interface of the {@link ConvertOnWriteStatistics}. Must be public for the JMX introspection.
+ *
+ * @since 1.0.2
+ */
+public interface ConvertOnWriteStatisticsMBean {
+
+	/**
+	 * @return the number of full conversions triggered by writing into a belt column
+	 */
+	long getConversionsOnSet();
+
+	/**
+	 * @return the number of full conversions triggered by removing an attribute
+	 */
+	long getConversionsOnRemove();
+
+	/**
+	 * @return the number of full conversions triggered by serialization
+	 */
+	long getConversionsOnSerialization();
+
+	/**
+	 * @return the number of full conversions started in the background, see {@link TableViewCreator.PreConversion}
+	 */
+	long getConversionsInBackground();
+
+	/**
+	 * @return the number of values read from belt columns, their overlays or their converted copies
+	 */
+	long getBeltReads();
+
+	/**
+	 * @return the number of values read from added columns of unconverted tables
+	 */
+	long getNewColumnReads();
+
+	/**
+	 * @return the number of values read from converted tables
+	 */
+	long getConvertedReads();
+
+	/**
+	 * @return the total time in nanoseconds threads waited for the locks of convert-on-write tables
+	 */
+	long getLockWaitNanos();
+
+	/**
+	 * @return the stack traces of the most recent sampled conversions, the latest first
+	 */
+	String[] getConversionTraces();
+
+	/**
+	 * Sets all counters to {@code 0} and clears the stack traces.
+	 */
+	void reset();
+
+}
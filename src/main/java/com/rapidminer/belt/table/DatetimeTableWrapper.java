@@ -22,7 +22,6 @@ import java.io.ObjectStreamException;
 import java.time.Instant;
 import java.util.Iterator;
 
-import com.rapidminer.adaption.belt.IOTable;
 import com.rapidminer.belt.column.Column;
 import com.rapidminer.belt.reader.MixedRow;
 import com.rapidminer.belt.reader.MixedRowReader;
@@ -53,13 +52,19 @@ public final class DatetimeTableWrapper extends RowwiseStatisticsExampleSet {
 	}
 
 	/**
-	 * {@link Table} is not serializable, but we replace it by an example set on serialization anyway, see
-	 * {@link #writeReplace()}.
+	 * {@link Table} is not serializable, but we replace the wrapper by a serialized form on serialization anyway,
+	 * see {@link #writeReplace()}.
 	 */
 	private final transient Table table;
 	private final HeaderExampleSet header;
 	private final ReadType[] readTypes;
 
+	/**
+	 * Remappings for nominal columns whose dictionaries are compacted or reordered on read, see {@link
+	 * DictionaryRemapping}.
+	 */
+	private final transient DictionaryRemapping[] remappings;
+
 	/**
 	 * Creates a wrapper for a table containing datetime columns.
 	 *
@@ -67,8 +72,16 @@ public final class DatetimeTableWrapper extends RowwiseStatisticsExampleSet {
 	 * 		it the table contains non-standard columns
 	 */
 	DatetimeTableWrapper(Table table) {
+		this(table, DoubleTableWrapper.getShiftedHeader(table));
+	}
+
+	/**
+	 * Creates a wrapper for a table containing datetime columns with a header created by {@link
+	 * DoubleTableWrapper#getShiftedHeader(Table)} before.
+	 */
+	DatetimeTableWrapper(Table table, HeaderExampleSet header) {
 		this.table = table;
-		this.header = DoubleTableWrapper.getShiftedHeader(table);
+		this.header = header;
 		readTypes = new ReadType[table.width()];
 		for (int i = 0; i < table.width(); i++) {
 			if (table.column(i).type().id() == Column.TypeId.DATE_TIME) {
@@ -81,11 +94,13 @@ public final class DatetimeTableWrapper extends RowwiseStatisticsExampleSet {
 				readTypes[i] = ReadType.NUMERIC;
 			}
 		}
+		remappings = DictionaryRemapping.of(table);
 	}
 
 	public DatetimeTableWrapper(DatetimeTableWrapper wrapper) {
 		this.table = wrapper.table;
 		this.readTypes = wrapper.readTypes;
+		this.remappings = wrapper.remappings;
 		this.header = (HeaderExampleSet) wrapper.header.clone();
 	}
 
@@ -109,7 +124,7 @@ public final class DatetimeTableWrapper extends RowwiseStatisticsExampleSet {
 		MixedRowReader reader = SmallReaders.unbufferedMixedRowReader(table);
 		reader.setPosition(index - 1);
 		reader.move();
-		return new Example(new FakeRow(reader, readTypes), header);
+		return new Example(new FakeRow(reader, readTypes, remappings), header);
 	}
 
 	@Override
@@ -124,7 +139,7 @@ public final class DatetimeTableWrapper extends RowwiseStatisticsExampleSet {
 			@Override
 			public Example next() {
 				reader.move();
-				return new Example(new FakeRow(reader, readTypes), header);
+				return new Example(new FakeRow(reader, readTypes, remappings), header);
 			}
 		};
 	}
@@ -134,16 +149,22 @@ public final class DatetimeTableWrapper extends RowwiseStatisticsExampleSet {
 		private static final long serialVersionUID = -4422364455662199363L;
 		private final transient MixedRow row;
 		private final transient ReadType[] readTypes;
+		private final transient DictionaryRemapping[] remappings;
 
-		private FakeRow(MixedRow row, ReadType[] readTypes) {
+		private FakeRow(MixedRow row, ReadType[] readTypes, DictionaryRemapping[] remappings) {
 			this.row = row;
 			this.readTypes = readTypes;
+			this.remappings = remappings;
 		}
 
 		@Override
 		protected double get(int index, double defaultValue) {
 			switch (readTypes[index]) {
 				case NOMINAL:
+					DictionaryRemapping remapping = remappings[index];
+					if (remapping != null) {
+						return remapping.remapShifted(row.getNumeric(index));
+					}
 					//shift category indices since belt mapping starts with null
 					return row.getNumeric(index) - 1;
 				case DATETIME:
@@ -198,9 +219,9 @@ public final class DatetimeTableWrapper extends RowwiseStatisticsExampleSet {
 	}
 
 	/**
-	 * When serializing, convert to an example set.
+	 * When serializing, write the table columns instead of the wrapper, see {@link SerializedTableWrapper}.
 	 */
 	private Object writeReplace() throws ObjectStreamException {
-		return BeltConverter.convertSequentially(new IOTable(table));
+		return new SerializedTableWrapper(table, header, true);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.rapidminer.belt.column.Column;
+import com.rapidminer.belt.column.Dictionary;
+
+
+/**
+ * Maps the category indices of a belt {@link Dictionary} with gaps or with a boolean dictionary that does not have the
+ * negative value first to the category indices of a compact dictionary with the negative value first. Allows to apply
+ * the compaction when reading a category index instead of copying the whole column via {@link
+ * com.rapidminer.belt.column.Columns#compactDictionary(Column)}.
+ *
+ * @since 1.0.2
+ */
+final class DictionaryRemapping {
+
+	/**
+	 * map from the original category index to the compacted category index, {@code 0} stays {@code 0}
+	 */
+	private final int[] remap;
+
+	/**
+	 * the compacted dictionary as belt mapping list, starting with {@code null}
+	 */
+	private final List<String> mapping;
+
+	private DictionaryRemapping(int[] remap, List<String> mapping) {
+		this.remap = remap;
+		this.mapping = mapping;
+	}
+
+	/**
+	 * Creates a remapping for the dictionary if it has gaps or if it is a boolean dictionary with the negative value
+	 * not first and negativeFirst is {@code true}.
+	 *
+	 * @param dictionary
+	 * 		the dictionary to remap
+	 * @param negativeFirst
+	 * 		whether boolean dictionaries should have the negative value first
+	 * @return the remapping or {@code null} if the dictionary can be used as it is
+	 */
+	static DictionaryRemapping of(Dictionary dictionary, boolean negativeFirst) {
+		boolean reorder = negativeFirst && hasWrongNegativeIndex(dictionary);
+		if (!reorder && dictionary.size() == dictionary.maximalIndex()) {
+			return null;
+		}
+		int[] remap = new int[dictionary.maximalIndex() + 1];
+		List<String> mapping = new ArrayList<>(dictionary.size() + 1);
+		mapping.add(null);
+		if (reorder) {
+			int negativeIndex = dictionary.getNegativeIndex();
+			remap[negativeIndex] = mapping.size();
+			mapping.add(dictionary.get(negativeIndex));
+			if (dictionary.hasPositive()) {
+				int positiveIndex = dictionary.getPositiveIndex();
+				remap[positiveIndex] = mapping.size();
+				mapping.add(dictionary.get(positiveIndex));
+			}
+		} else {
+			for (Dictionary.Entry entry : dictionary) {
+				remap[entry.getIndex()] = mapping.size();
+				mapping.add(entry.getValue());
+			}
+		}
+		return new DictionaryRemapping(remap, mapping);
+	}
+
+	/**
+	 * Creates the remappings for all nominal columns of the table with the negative value first for boolean
+	 * dictionaries.
+	 *
+	 * @param table
+	 * 		the table to create the remappings for
+	 * @return an array of the width of the table with remappings or {@code null} if the column needs none
+	 */
+	static DictionaryRemapping[] of(Table table) {
+		DictionaryRemapping[] remappings = new DictionaryRemapping[table.width()];
+		for (int i = 0; i < remappings.length; i++) {
+			Column column = table.column(i);
+			if (column.type().id() == Column.TypeId.NOMINAL) {
+				remappings[i] = of(column.getDictionary(), true);
+			}
+		}
+		return remappings;
+	}
+
+	/**
+	 * Returns the belt mapping list of the dictionary after remapping with the negative value first for boolean
+	 * dictionaries.
+	 *
+	 * @param dictionary
+	 * 		the dictionary
+	 * @return the compacted mapping list, starting with {@code null}
+	 */
+	static List<String> getMapping(Dictionary dictionary) {
+		DictionaryRemapping remapping = of(dictionary, true);
+		if (remapping == null) {
+			return ColumnAccessor.get().getDictionaryList(dictionary);
+		}
+		return remapping.mapping;
+	}
+
+	/**
+	 * Checks whether the dictionary is boolean with a negative value that is not at the first index. Boolean
+	 * dictionaries without negative value are not reordered, they need a placeholder negative value instead, see
+	 * {@link #needsPlaceholderNegative(Column)}.
+	 */
+	static boolean hasWrongNegativeIndex(Dictionary dictionary) {
+		return dictionary.isBoolean() && dictionary.hasNegative() && dictionary.getNegativeIndex() != 1;
+	}
+
+	/**
+	 * Checks whether the column is nominal with a non-empty boolean dictionary without negative value. Such columns
+	 * cannot be remapped on read since the legacy binominal mapping requires a negative value in front of the positive
+	 * one.
+	 */
+	static boolean needsPlaceholderNegative(Column column) {
+		if (column.type().id() != Column.TypeId.NOMINAL) {
+			return false;
+		}
+		Dictionary dictionary = column.getDictionary();
+		return dictionary.isBoolean() && !dictionary.hasNegative() && dictionary.size() > 0;
+	}
+
+	/**
+	 * @param categoryIndex
+	 * 		the original category index
+	 * @return the category index in the compacted dictionary
+	 */
+	int remap(int categoryIndex) {
+		return remap[categoryIndex];
+	}
+
+	/**
+	 * Remaps a category index read as double where missing values are {@code NaN} and shifts it to the legacy index.
+	 *
+	 * @param read
+	 * 		the original category index as double
+	 * @return the legacy category index or {@code NaN}
+	 */
+	double remapShifted(double read) {
+		if (Double.isNaN(read)) {
+			return read;
+		}
+		return remap[(int) read] - 1d;
+	}
+
+	/**
+	 * @return the compacted mapping list, starting with {@code null}
+	 */
+	List<String> getMapping() {
+		return mapping;
+	}
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Global memory budget for the copies of belt column values that the table accessors use for random access, see
+ * {@link AbstractTableAccessor#PROPERTY_DIRECT_ACCESS_MEMORY}. The budget is shared by all accessors. The memory of a
+ * copy is returned to the budget once the copy was garbage collected.
+ *
+ * @since 1.0.2
+ */
+final class DirectAccessBudget {
+
+	/**
+	 * the bytes of all copies that were not garbage collected yet
+	 */
+	private static final AtomicLong USED = new AtomicLong();
+
+	/**
+	 * notified when copies are garbage collected
+	 */
+	private static final ReferenceQueue<double[]> COLLECTED = new ReferenceQueue<>();
+
+	/**
+	 * keeps the phantom references reachable until their copies are collected
+	 */
+	private static final Set<CopyReference> REFERENCES = ConcurrentHashMap.newKeySet();
+
+	private DirectAccessBudget() {
+		throw new AssertionError("Utility class");
+	}
+
+	/**
+	 * Reserves the memory for a copy of the given size if the budget allows it.
+	 *
+	 * @param bytes
+	 * 		the size of the copy
+	 * @param budget
+	 * 		the maximal number of bytes all copies may use
+	 * @return whether the memory was reserved
+	 */
+	static boolean reserve(long bytes, long budget) {
+		releaseCollected();
+		if (USED.addAndGet(bytes) <= budget) {
+			return true;
+		}
+		USED.addAndGet(-bytes);
+		return false;
+	}
+
+	/**
+	 * Returns reserved memory that is not used for a copy.
+	 *
+	 * @param bytes
+	 * 		the reserved bytes
+	 */
+	static void cancel(long bytes) {
+		USED.addAndGet(-bytes);
+	}
+
+	/**
+	 * Registers the copy that uses reserved memory so that the memory is returned once the copy is garbage collected.
+	 *
+	 * @param values
+	 * 		the copy
+	 */
+	static void register(double[] values) {
+		REFERENCES.add(new CopyReference(values, COLLECTED));
+	}
+
+	/**
+	 * @return the bytes used by copies that were not garbage collected yet
+	 */
+	static long used() {
+		releaseCollected();
+		return USED.get();
+	}
+
+	/**
+	 * Returns the memory of the collected copies to the budget.
+	 */
+	private static void releaseCollected() {
+		Reference<? extends double[]> reference;
+		while ((reference = COLLECTED.poll()) != null) {
+			if (REFERENCES.remove(reference)) {
+				USED.addAndGet(-((CopyReference) reference).bytes);
+			}
+		}
+	}
+
+	/**
+	 * Phantom reference that remembers the size of the copy.
+	 */
+	private static final class CopyReference extends PhantomReference<double[]> {
+
+		private final long bytes;
+
+		private CopyReference(double[] values, ReferenceQueue<double[]> queue) {
+			super(values, queue);
+			bytes = (long) values.length * Double.BYTES;
+		}
+	}
+
+}
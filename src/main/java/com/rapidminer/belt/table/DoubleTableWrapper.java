@@ -23,7 +23,6 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-import com.rapidminer.adaption.belt.IOTable;
 import com.rapidminer.belt.column.Column;
 import com.rapidminer.belt.reader.NumericRow;
 import com.rapidminer.belt.reader.NumericRowReader;
@@ -54,13 +53,19 @@ public final class DoubleTableWrapper extends RowwiseStatisticsExampleSet {
 	private static final long serialVersionUID = 2750264783853433870L;
 
 	/**
-	 * {@link Table} is not serializable, but we replace it by an example set on serialization anyway, see
-	 * {@link #writeReplace()}.
+	 * {@link Table} is not serializable, but we replace the wrapper by a serialized form on serialization anyway,
+	 * see {@link #writeReplace()}.
 	 */
 	private final transient Table table;
 	private final HeaderExampleSet header;
 	private final boolean[] nominal;
 
+	/**
+	 * Remappings for nominal columns whose dictionaries are compacted or reordered on read, see {@link
+	 * DictionaryRemapping}.
+	 */
+	private final transient DictionaryRemapping[] remappings;
+
 	/**
 	 * Creates a wrapper for a table not containing datetime columns.
 	 *
@@ -68,18 +73,28 @@ public final class DoubleTableWrapper extends RowwiseStatisticsExampleSet {
 	 * 		it the table contains non-standard columns
 	 */
 	DoubleTableWrapper(Table table) {
+		this(table, getShiftedHeader(table));
+	}
+
+	/**
+	 * Creates a wrapper for a table not containing datetime columns with a header created by {@link
+	 * #getShiftedHeader(Table)} before.
+	 */
+	DoubleTableWrapper(Table table, HeaderExampleSet header) {
 		this.table = table;
-		this.header = getShiftedHeader(table);
+		this.header = header;
 		this.nominal = new boolean[table.width()];
 		for (int i = 0; i < table.width(); i++) {
 			nominal[i] = table.column(i).type().id() == Column.TypeId.NOMINAL;
 		}
+		this.remappings = DictionaryRemapping.of(table);
 	}
 
 	public DoubleTableWrapper(DoubleTableWrapper wrapper) {
 		this.table = wrapper.table;
 		this.header = (HeaderExampleSet) wrapper.header.clone();
 		this.nominal = wrapper.nominal;
+		this.remappings = wrapper.remappings;
 	}
 
 	@Override
@@ -102,7 +117,7 @@ public final class DoubleTableWrapper extends RowwiseStatisticsExampleSet {
 		NumericRowReader reader = SmallReaders.unbufferedNumericRowReader(table);
 		reader.setPosition(index - 1);
 		reader.move();
-		return new Example(new FakeRow(reader, nominal), header);
+		return new Example(new FakeRow(reader, nominal, remappings), header);
 	}
 
 	@Override
@@ -117,7 +132,7 @@ public final class DoubleTableWrapper extends RowwiseStatisticsExampleSet {
 			@Override
 			public Example next() {
 				reader.move();
-				return new Example(new FakeRow(reader, nominal), header);
+				return new Example(new FakeRow(reader, nominal, remappings), header);
 			}
 		};
 	}
@@ -127,15 +142,21 @@ public final class DoubleTableWrapper extends RowwiseStatisticsExampleSet {
 		private static final long serialVersionUID = -2914473986997566956L;
 		private final transient NumericRow row;
 		private final boolean[] nominal;
+		private final transient DictionaryRemapping[] remappings;
 
-		private FakeRow(NumericRow row, boolean[] nominal) {
+		private FakeRow(NumericRow row, boolean[] nominal, DictionaryRemapping[] remappings) {
 			this.row = row;
 			this.nominal = nominal;
+			this.remappings = remappings;
 		}
 
 		@Override
 		protected double get(int index, double defaultValue) {
 			if (nominal[index]) {
+				DictionaryRemapping remapping = remappings[index];
+				if (remapping != null) {
+					return remapping.remapShifted(row.get(index));
+				}
 				//shift category indices since belt mapping starts with null
 				return row.get(index) - 1;
 			} else {
@@ -162,25 +183,24 @@ public final class DoubleTableWrapper extends RowwiseStatisticsExampleSet {
 		public String toString() {
 			StringBuilder result = new StringBuilder();
 			for (int i = 0; i < row.width(); i++) {
-				result.append(i == 0 ? "" : ",").append(row.get(i) - (nominal[i] ? 1 : 0));
+				result.append(i == 0 ? "" : ",").append(get(i, 0));
 			}
 			return result.toString();
 		}
 	}
 
 	/**
-	 * When serializing, convert to an example set.
-	 *
+	 * When serializing, write the table columns instead of the wrapper, see {@link SerializedTableWrapper}.
 	 */
 	private Object writeReplace() throws ObjectStreamException {
-		return BeltConverter.convertSequentially(new IOTable(table));
+		return new SerializedTableWrapper(table, header, false);
 	}
 
 	/**
 	 * This creates a header example set from the table. In contrast to
 	 * {@link com.rapidminer.belt.table.BeltConverter#convertHeader(Table)},
-	 * the nominal mappings are shifted so that they do not contain {@code null}. This requires an adjustment of the
-	 * category indices.
+	 * the nominal mappings are shifted so that they do not contain {@code null} and compacted as described in {@link
+	 * DictionaryRemapping}. This requires an adjustment of the category indices.
 	 *
 	 * @param table
 	 * 		the table to convert
@@ -201,7 +221,7 @@ public final class DoubleTableWrapper extends RowwiseStatisticsExampleSet {
 			attributes.add(new AttributeRole(attribute));
 			orderedAttributes.add(attribute);
 			if (attribute.isNominal()) {
-				List<String> mapping = ColumnAccessor.get().getDictionaryList(column.getDictionary());
+				List<String> mapping = DictionaryRemapping.getMapping(column.getDictionary());
 				attribute.setMapping(new ShiftedNominalMappingAdapter(mapping));
 			}
 			i++;
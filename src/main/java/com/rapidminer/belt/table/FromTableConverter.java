@@ -22,13 +22,15 @@ import java.time.Instant;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 
 import com.rapidminer.adaption.belt.IOTable;
 import com.rapidminer.belt.column.Column;
-import com.rapidminer.belt.column.Columns;
 import com.rapidminer.belt.column.Dictionary;
 import com.rapidminer.belt.reader.CategoricalReader;
 import com.rapidminer.belt.reader.NumericReader;
@@ -43,7 +45,6 @@ import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.SimpleAttributes;
 import com.rapidminer.example.set.HeaderExampleSet;
 import com.rapidminer.example.table.AttributeFactory;
-import com.rapidminer.example.table.BinominalMapping;
 import com.rapidminer.example.table.ExampleTable;
 import com.rapidminer.example.table.NominalMapping;
 import com.rapidminer.example.table.internal.ColumnarExampleTable;
@@ -66,6 +67,11 @@ enum FromTableConverter {
 	 */
 	private static final String MESSAGE_NON_SUPPORTED = "Type not supported for now";
 
+	/**
+	 * Number of category indices that are read at once when copying nominal columns.
+	 */
+	private static final int CATEGORY_BATCH_SIZE = 1024;
+
 	/**
 	 * Extracts a {@link HeaderExampleSet} from a table. This is useful for creating a {@link
 	 * com.rapidminer.example.set.RemappedExampleSet} or specifying training header of a {@link
@@ -121,6 +127,152 @@ enum FromTableConverter {
 		}
 
 		Table table = tableObject.getTable();
+		List<Attribute> attributes = createAttributes(table);
+
+		ExampleSet set = ExampleSets.from(attributes).withBlankSize(table.height()).build();
+		BeltConverter.storeBeltMetaDataInExampleSetUserData(table, set);
+		copyColumns(table.getColumns(), attributes, set, context, false);
+
+		BeltConverter.convertRoles(table, set.getAttributes());
+		//adjust attribute order so that it is kept instead of adding special attributes at the end
+		adjustAttributes((Attributes)set.getAttributes().clone(), attributes, set);
+		set.getAnnotations().addAll(tableObject.getAnnotations());
+		set.setSource(tableObject.getSource());
+		return set;
+	}
+
+	/**
+	 * Converts a belt {@link IOTable} into an {@link ExampleSet} backed by an {@link OffHeapExampleTable}. The values
+	 * are stored outside of the Java heap so that large example sets do not increase the garbage collection pauses.
+	 *
+	 * @param tableObject
+	 * 		the table object to convert
+	 * @param context
+	 * 		the context to use for parallel execution
+	 * @return a new example set containing the values of the table
+	 * @throws IllegalArgumentException
+	 * 		if table or context is null
+	 * @throws BeltConverter.ConversionException
+	 * 		if the table cannot be converted because it contains non-standard columns
+	 */
+	static ExampleSet convertOffHeap(IOTable tableObject, ConcurrencyContext context) {
+		return convert(tableObject, context, OffHeapExampleTable::new);
+	}
+
+	/**
+	 * Converts a belt {@link IOTable} into an {@link ExampleSet} backed by a {@link CompactExampleTable}. The values
+	 * are stored in the smallest primitive type fitting the attribute instead of as doubles.
+	 *
+	 * @param tableObject
+	 * 		the table object to convert
+	 * @param context
+	 * 		the context to use for parallel execution
+	 * @return a new example set containing the values of the table
+	 * @throws IllegalArgumentException
+	 * 		if table or context is null
+	 * @throws BeltConverter.ConversionException
+	 * 		if the table cannot be converted because it contains non-standard columns
+	 */
+	static ExampleSet convertCompact(IOTable tableObject, ConcurrencyContext context) {
+		return convert(tableObject, context, CompactExampleTable::new);
+	}
+
+	/**
+	 * Converts a belt {@link IOTable} into an {@link ExampleSet} backed by the example table created by the given
+	 * constructor from the attributes and the height.
+	 */
+	private static ExampleSet convert(IOTable tableObject, ConcurrencyContext context,
+									  BiFunction<List<Attribute>, Integer, ExampleTable> tableConstructor) {
+		if (tableObject == null) {
+			throw new IllegalArgumentException("Table object must not be null");
+		}
+		if (context == null) {
+			throw new IllegalArgumentException("Context must not be null");
+		}
+
+		Table table = tableObject.getTable();
+		List<Attribute> attributes = createAttributes(table);
+
+		ExampleTable exampleTable = tableConstructor.apply(attributes, table.height());
+		ExampleSet set = exampleTable.createExampleSet();
+		BeltConverter.storeBeltMetaDataInExampleSetUserData(table, set);
+		if (exampleTable instanceof CompactExampleTable) {
+			// every column is written by one thread and the set is not returned yet, so the writes need no lock
+			CompactExampleTable compactTable = (CompactExampleTable) exampleTable;
+			compactTable.startExclusiveWrites();
+			try {
+				copyColumns(table.getColumns(), attributes, set, context, false);
+			} finally {
+				compactTable.endExclusiveWrites();
+			}
+		} else {
+			copyColumns(table.getColumns(), attributes, set, context, false);
+		}
+
+		BeltConverter.convertRoles(table, set.getAttributes());
+		//adjust attribute order so that it is kept instead of adding special attributes at the end
+		adjustAttributes((Attributes) set.getAttributes().clone(), attributes, set);
+		set.getAnnotations().addAll(tableObject.getAnnotations());
+		set.setSource(tableObject.getSource());
+		return set;
+	}
+
+	/**
+	 * Converts a belt {@link IOTable} into an {@link ExampleSet} like {@link #convert(IOTable, ConcurrencyContext)}
+	 * but takes the table object out of the holder and drops the reference to every belt column as soon as it has
+	 * been copied. If the holder contained the only reference to the table object, the peak memory consumption is
+	 * about the size of the resulting example set plus the columns that are copied at the same time instead of the
+	 * size of both tables.
+	 *
+	 * @param tableHolder
+	 * 		the holder of the table object to convert, is cleared once the table was checked to be convertible. The
+	 * 		table itself is not changed, so other references to it stay valid.
+	 * @param context
+	 * 		the context to use for parallel execution
+	 * @return a new example set containing the values of the table
+	 * @throws IllegalArgumentException
+	 * 		if the holder, the table object or context is null
+	 * @throws BeltConverter.ConversionException
+	 * 		if the table cannot be converted because it contains non-standard columns
+	 */
+	static ExampleSet convertAndRelease(AtomicReference<IOTable> tableHolder, ConcurrencyContext context) {
+		if (tableHolder == null) {
+			throw new IllegalArgumentException("Table holder must not be null");
+		}
+		if (context == null) {
+			throw new IllegalArgumentException("Context must not be null");
+		}
+		IOTable tableObject = tableHolder.get();
+		if (tableObject == null) {
+			throw new IllegalArgumentException("Table object must not be null");
+		}
+
+		Table table = tableObject.getTable();
+		// might throw a conversion exception, the holder keeps the table in that case
+		List<Attribute> attributes = createAttributes(table);
+		tableHolder.compareAndSet(tableObject, null);
+
+		ExampleSet set = ExampleSets.from(attributes).withBlankSize(table.height()).build();
+		BeltConverter.storeBeltMetaDataInExampleSetUserData(table, set);
+		BeltConverter.convertRoles(table, set.getAttributes());
+		//adjust attribute order so that it is kept instead of adding special attributes at the end
+		adjustAttributes((Attributes) set.getAttributes().clone(), attributes, set);
+		set.getAnnotations().addAll(tableObject.getAnnotations());
+		set.setSource(tableObject.getSource());
+
+		// copy the column array of the table so that releasing columns does not change the table
+		Column[] columns = Arrays.copyOf(table.getColumns(), table.width());
+		// drop the references to the table so that the array holds the only references to the columns
+		table = null;
+		tableObject = null;
+		copyColumns(columns, attributes, set, context, true);
+		return set;
+	}
+
+	/**
+	 * Creates the attributes for the columns of the table.
+	 */
+	private static List<Attribute> createAttributes(Table table) {
 		List<Attribute> attributes = new ArrayList<>();
 		List<String> labels = table.labels();
 		int i = 0;
@@ -129,23 +281,33 @@ enum FromTableConverter {
 			attributes.add(AttributeFactory.createAttribute(label, valueType));
 			i++;
 		}
+		return attributes;
+	}
 
-		ExampleSet set = ExampleSets.from(attributes).withBlankSize(table.height()).build();
-		BeltConverter.storeBeltMetaDataInExampleSetUserData(table, set);
+	/**
+	 * Copies the columns into the example table of the set, in parallel if it is a {@link ColumnarExampleTable} or an
+	 * {@link AbstractColumnExampleTable} which both allow to write different columns concurrently.
+	 */
+	private static void copyColumns(Column[] columns, List<Attribute> attributes, ExampleSet set,
+									ConcurrencyContext context, boolean release) {
 		ExampleTable exampleTable = set.getExampleTable();
-		if (exampleTable instanceof ColumnarExampleTable) {
-			ColumnarExampleTable columnTable = (ColumnarExampleTable) exampleTable;
-			convertParallel(table, attributes, columnTable, context);
+		if (exampleTable instanceof ColumnarExampleTable || exampleTable instanceof AbstractColumnExampleTable) {
+			convertParallel(columns, attributes, exampleTable, context, release);
 		} else {
-			convertSequentially(table, set);
+			convertSequentially(columns, attributes, set, release);
 		}
+	}
 
-		BeltConverter.convertRoles(table, set.getAttributes());
-		//adjust attribute order so that it is kept instead of adding special attributes at the end
-		adjustAttributes((Attributes)set.getAttributes().clone(), attributes, set);
-		set.getAnnotations().addAll(tableObject.getAnnotations());
-		set.setSource(tableObject.getSource());
-		return set;
+	/**
+	 * Returns the column at the given index. If release is {@code true}, the column is removed from the array so that
+	 * it can be garbage collected as soon as it has been copied.
+	 */
+	private static Column takeColumn(Column[] columns, int index, boolean release) {
+		Column column = columns[index];
+		if (release) {
+			columns[index] = null;
+		}
+		return column;
 	}
 
 
@@ -185,14 +347,7 @@ enum FromTableConverter {
 		}
 
 		Table table = tableObject.getTable();
-		List<Attribute> attributes = new ArrayList<>();
-		List<String> labels = table.labels();
-		int i = 0;
-		for (String label : labels) {
-			int valueType = BeltConverter.getValueType(table, label, i);
-			attributes.add(AttributeFactory.createAttribute(label, valueType));
-			i++;
-		}
+		List<Attribute> attributes = createAttributes(table);
 
 		ExampleSet set = ExampleSets.from(attributes).withBlankSize(table.height()).build();
 		BeltConverter.storeBeltMetaDataInExampleSetUserData(table, set);
@@ -204,15 +359,18 @@ enum FromTableConverter {
 	}
 
 	/**
-	 * Converts the table for the {@link ConvertOnWriteExampleTable}.
+	 * Converts the table for the {@link ConvertOnWriteExampleTable}. The columns are copied in parallel using the given
+	 * context. If there is no context, they are copied sequentially.
 	 *
 	 * @param table
 	 * 		the underlying belt {@link Table}
 	 * @param attributes
 	 * 		the attributes for the table
-	 * @return a new {@link ColumnarExampleTable}
+	 * @param context
+	 * 		the context to use for parallel execution, can be {@code null}
+	 * @return a new {@link CompactExampleTable}
 	 */
-	static ColumnarExampleTable convert(Table table, Attribute[] attributes) {
+	static CompactExampleTable convert(Table table, Attribute[] attributes, ConcurrencyContext context) {
 		List<Attribute> attributeList = Arrays.asList(attributes);
 		//replace nulls by dummy attributes
 		List<Attribute> dummyAttributes = new ArrayList<>();
@@ -224,39 +382,55 @@ enum FromTableConverter {
 			}
 		}
 
-		ColumnarExampleTable columnarExampleTable = new ColumnarExampleTable(attributeList);
-		columnarExampleTable.addBlankRows(table.height());
-		columnarExampleTable.setExpectedSize(table.height());
+		CompactExampleTable compactTable = new CompactExampleTable(attributeList, table.height());
 
 		for (Attribute dummyAttribute : dummyAttributes) {
-			columnarExampleTable.removeAttribute(dummyAttribute);
+			compactTable.removeAttribute(dummyAttribute);
 		}
-		ExampleSet exampleSet = columnarExampleTable.createExampleSet();
+		ExampleSet exampleSet = compactTable.createExampleSet();
 		// replace the same way as it is displayed in the view
 		table = TableViewCreator.INSTANCE.replaceAdvancedWithErrorMessage(table, x -> TableViewCreator.CANNOT_DISPLAY_MESSAGE);
-		convertSequentially(table, exampleSet);
-		columnarExampleTable.complete();
+		// every column is written by one thread and the table is not published yet, so the writes need no lock
+		compactTable.startExclusiveWrites();
+		try {
+			if (context != null) {
+				convertParallel(table.getColumns(), regularAttributes(exampleSet), compactTable, context, false);
+			} else {
+				convertSequentially(table, exampleSet);
+			}
+		} finally {
+			compactTable.endExclusiveWrites();
+		}
 
-		return columnarExampleTable;
+		return compactTable;
 	}
 
 	/**
-	 * While studio does not explicitly forbid {@code null} values in dictionaries, some places assume that there are
-	 * none, so we adjust all belt dictionaries with this problem.
-	 *
-	 * @param column
-	 * 		a nominal column
+	 * @return the regular attributes of the set as list
 	 */
-	private static Column removeGapsFromDictionary(Column column) {
-		return Columns.compactDictionary(column);
+	private static List<Attribute> regularAttributes(ExampleSet set) {
+		List<Attribute> attributes = new ArrayList<>();
+		for (Attribute attribute : set.getAttributes()) {
+			attributes.add(attribute);
+		}
+		return attributes;
 	}
 
 	/**
 	 * Copies the data from the table into the set sequentially.
 	 */
 	private static void convertSequentially(Table table, ExampleSet set) {
-		for (Attribute attribute : set.getAttributes()) {
-			Column column = table.column(attribute.getTableIndex());
+		convertSequentially(table.getColumns(), regularAttributes(set), set, false);
+	}
+
+	/**
+	 * Copies the data from the columns into the set sequentially. The column for an attribute is the one at its table
+	 * index. If release is {@code true}, the columns are removed from the array one by one.
+	 */
+	private static void convertSequentially(Column[] columns, List<Attribute> attributes, ExampleSet set,
+											boolean release) {
+		for (Attribute attribute : attributes) {
+			Column column = takeColumn(columns, attribute.getTableIndex(), release);
 			switch (attribute.getValueType()) {
 				case Ontology.STRING:
 				case Ontology.FILE_PATH:
@@ -322,112 +496,103 @@ enum FromTableConverter {
 	}
 
 	private static void copyToNominal(ExampleSet set, Attribute attribute, Column column) {
-		column = removeGapsFromDictionary(column);
-
-		copyNewToOldMapping(attribute, column);
-		CategoricalReader reader = Readers.categoricalReader(column);
-		for (Example example : set) {
-			int read = reader.read();
-			if (read == CategoricalReader.MISSING_CATEGORY) {
-				example.setValue(attribute, Double.NaN);
-			} else {
-				example.setValue(attribute, read - 1d);
-			}
-		}
+		copyToNominal(set, attribute, column, false);
 	}
 
 	private static void copyToBinominal(ExampleSet set, Attribute attribute, Column column) {
-		column = removeGapsFromDictionary(column);
+		// the binominal mapping requires the negative value first
+		copyToNominal(set, attribute, column, column.getDictionary().isBoolean());
+	}
 
-		Dictionary dictionary = column.getDictionary();
-		List<String> mapping = ColumnAccessor.get().getDictionaryList(dictionary);
-		if (dictionary.isBoolean()) {
-			// check if last value is positive
-			if (dictionary.getPositiveIndex() == 2 || !dictionary.hasPositive()) {
-				copyNegativePositive(set, attribute, column, dictionary);
-			} else {
-				copyPositiveNegative(set, attribute, column, mapping);
+	/**
+	 * Copies the nominal column, remapping the category indices on read instead of compacting the dictionary first.
+	 * The category indices are read in batches and converted to legacy values in a separate loop.
+	 */
+	private static void copyToNominal(ExampleSet set, Attribute attribute, Column column, boolean negativeFirst) {
+		double[] lookup = toLegacyLookup(column, copyNewToOldMapping(attribute, column, negativeFirst));
+		int size = column.size();
+		int[] categories = new int[Math.min(CATEGORY_BATCH_SIZE, size)];
+		double[] values = new double[categories.length];
+		Iterator<Example> examples = set.iterator();
+		for (int start = 0; start < size; start += categories.length) {
+			int length = readLegacyValues(column, start, categories, lookup, values);
+			for (int i = 0; i < length; i++) {
+				examples.next().setValue(attribute, values[i]);
 			}
-		} else {
-			copyToNominal(set, attribute, column);
 		}
 	}
 
 	/**
-	 * Copy binominals from table to mapping in case the mapping contains first the positive, then the negative value.
+	 * Creates the lookup table from the category indices of the column to the legacy values, i.e. the remapped
+	 * category indices shifted by one. The missing category is mapped to {@code NaN}.
 	 */
-	private static void copyPositiveNegative(ExampleSet set, Attribute attribute, Column column, List<String>
-			mapping) {
-		//the second mapped value is negative, we have to swap indices
-		int positiveIndex = mapping.size() - 2;
-		int negativeIndex = mapping.size() - 1;
-		NominalMapping legacyMapping = attribute.getMapping();
-		//the first mapped value is negative
-		legacyMapping.mapString(mapping.get(negativeIndex));
-		legacyMapping.mapString(mapping.get(positiveIndex));
-		CategoricalReader reader = Readers.categoricalReader(column);
-		for (Example example : set) {
-			int read = reader.read();
-			if (read == negativeIndex) {
-				example.setValue(attribute, BinominalMapping.NEGATIVE_INDEX);
-			} else if (read == positiveIndex) {
-				example.setValue(attribute, BinominalMapping.POSITIVE_INDEX);
-			} else {
-				example.setValue(attribute, Double.NaN);
-			}
+	private static double[] toLegacyLookup(Column column, DictionaryRemapping remapping) {
+		double[] lookup = new double[column.getDictionary().maximalIndex() + 1];
+		lookup[CategoricalReader.MISSING_CATEGORY] = Double.NaN;
+		for (int i = 1; i < lookup.length; i++) {
+			lookup[i] = (remapping == null ? i : remapping.remap(i)) - 1d;
 		}
+		return lookup;
 	}
 
 	/**
-	 * Copy binominals from table to mapping in case the mapping contains first the negative, then the positive value.
+	 * Fills the category indices of the column starting at the given row into the categories array and converts them
+	 * into legacy values via the lookup table.
+	 *
+	 * @return the number of values read
 	 */
-	private static void copyNegativePositive(ExampleSet set, Attribute attribute, Column column, Dictionary
-			mapping) {
-		NominalMapping legacyMapping = attribute.getMapping();
-		//the first mapped value is negative, the order is kept
-		for (Dictionary.Entry value : mapping) {
-			legacyMapping.mapString(value.getValue());
-		}
-		CategoricalReader reader = Readers.categoricalReader(column);
-		for (Example example : set) {
-			int read = reader.read();
-			if (read == CategoricalReader.MISSING_CATEGORY) {
-				example.setValue(attribute, Double.NaN);
-			} else {
-				example.setValue(attribute, read - 1d);
-			}
+	private static int readLegacyValues(Column column, int start, int[] categories, double[] lookup,
+										double[] values) {
+		column.fill(categories, start);
+		int length = Math.min(categories.length, column.size() - start);
+		for (int i = 0; i < length; i++) {
+			values[i] = lookup[categories[i]];
 		}
+		return length;
 	}
 
 
 	/**
-	 * Copies the given table into the given columnTable. Copies each of the given attributes in parallel using the
-	 * given context.
+	 * Copies the given columns into the given columnTable. Copies each of the given attributes in parallel using the
+	 * given context. If release is {@code true}, every column is removed from the array when its copying starts.
 	 */
-	private static void convertParallel(Table table, List<Attribute> attributes,
-										ColumnarExampleTable columnTable, ConcurrencyContext context) {
-		List<Callable<Void>> copier = new ArrayList<>(table.width());
-		int i = 0;
+	private static void convertParallel(Column[] columns, List<Attribute> attributes,
+										ExampleTable columnTable, ConcurrencyContext context, boolean release) {
+		try {
+			context.call(copiers(columns, attributes, columnTable, release));
+		} catch (ExecutionException e) {
+			ToTableConverter.handleExecutionException(e);
+		}
+	}
+
+	/**
+	 * Creates one callable per attribute that copies the column at the table index of the attribute into the
+	 * columnTable. If release is {@code true}, every column is removed from the array when its copying starts.
+	 */
+	private static List<Callable<Void>> copiers(Column[] columns, List<Attribute> attributes,
+												ExampleTable columnTable, boolean release) {
+		List<Callable<Void>> copier = new ArrayList<>(attributes.size());
 		for (Attribute attribute : attributes) {
-			Column column = table.column(i++);
+			// the callables must not capture the column so that it can be released after copying
+			int index = attribute.getTableIndex();
 			switch (attribute.getValueType()) {
 				case Ontology.STRING:
 				case Ontology.FILE_PATH:
 				case Ontology.NOMINAL:
 				case Ontology.POLYNOMINAL:
 					copier.add(() ->
-							copyNominalColumnToRows(columnTable, attribute, column));
+							copyNominalColumnToRows(columnTable, attribute, takeColumn(columns, index, release)));
 					break;
 				case Ontology.BINOMINAL:
 					copier.add(() ->
-							copyBinominalColumnToRows(columnTable, attribute, column));
+							copyBinominalColumnToRows(columnTable, attribute, takeColumn(columns, index, release)));
 					break;
 				case Ontology.NUMERICAL:
 				case Ontology.REAL:
 				case Ontology.INTEGER:
 					copier.add(() -> {
 						NumericReader reader =
-								Readers.numericReader(column);
+								Readers.numericReader(takeColumn(columns, index, release));
 						for (int row = 0; row < columnTable.size(); row++) {
 							columnTable.getDataRow(row).set(attribute, reader.read());
 						}
@@ -435,29 +600,28 @@ enum FromTableConverter {
 					});
 					break;
 				case Ontology.TIME:
-					if (column.type().id() == Column.TypeId.TIME) {
-						copier.add(() -> copyTimeColumnToRows(columnTable, attribute, column));
+					if (columns[index].type().id() == Column.TypeId.TIME) {
+						copier.add(() -> copyTimeColumnToRows(columnTable, attribute, takeColumn(columns, index,
+								release)));
 					} else {
 						// date-time can be converted to time for legacy reasons
-						copier.add(() -> copyDateTimeColumnToRows(columnTable, attribute, column));
+						copier.add(() -> copyDateTimeColumnToRows(columnTable, attribute, takeColumn(columns, index,
+								release)));
 					}
 					break;
 				case Ontology.DATE_TIME:
 				case Ontology.DATE:
-					copier.add(() -> copyDateTimeColumnToRows(columnTable, attribute, column));
+					copier.add(() -> copyDateTimeColumnToRows(columnTable, attribute, takeColumn(columns, index,
+							release)));
 					break;
 				default:
 					throw new UnsupportedOperationException(MESSAGE_NON_SUPPORTED);
 			}
 		}
-		try {
-			context.call(copier);
-		} catch (ExecutionException e) {
-			ToTableConverter.handleExecutionException(e);
-		}
+		return copier;
 	}
 
-	private static Void copyDateTimeColumnToRows(ColumnarExampleTable columnTable, Attribute attribute, Column
+	private static Void copyDateTimeColumnToRows(ExampleTable columnTable, Attribute attribute, Column
 			column) {
 		ObjectReader<Instant> reader = Readers.objectReader(column, Instant.class);
 		for (int row = 0; row < columnTable.size(); row++) {
@@ -471,7 +635,7 @@ enum FromTableConverter {
 		return null;
 	}
 
-	private static Void copyTimeColumnToRows(ColumnarExampleTable columnTable, Attribute attribute, Column
+	private static Void copyTimeColumnToRows(ExampleTable columnTable, Attribute attribute, Column
 			column) {
 		ObjectReader<LocalTime> reader = Readers.objectReader(column, LocalTime.class);
 		for (int row = 0; row < columnTable.size(); row++) {
@@ -487,96 +651,52 @@ enum FromTableConverter {
 		return null;
 	}
 
-	private static Void copyBinominalColumnToRows(ColumnarExampleTable columnTable, Attribute attribute,
+	private static Void copyBinominalColumnToRows(ExampleTable columnTable, Attribute attribute,
 												  Column column) {
-		column = removeGapsFromDictionary(column);
-
-		Dictionary dictionary = column.getDictionary();
-		if (dictionary.isBoolean()) {
-			List<String> mapping = ColumnAccessor.get().getDictionaryList(dictionary);
-			// check if last value is positive
-			if (dictionary.getPositiveIndex() == 2 || !dictionary.hasPositive()) {
-				copyNegativePositiveToRows(columnTable, attribute, column, dictionary);
-			} else {
-				copyPositiveNegativeToRows(columnTable, attribute, column, mapping);
-
-			}
-		} else {
-			copyNominalColumnToRows(columnTable, attribute, column);
-		}
-		return null;
+		// the binominal mapping requires the negative value first
+		return copyNominalColumnToRows(columnTable, attribute, column, column.getDictionary().isBoolean());
 	}
 
-	/**
-	 * Copy binominals from table to mapping in case the mapping contains first the positive, then the negative value.
-	 */
-	private static void copyPositiveNegativeToRows(ColumnarExampleTable columnTable, Attribute attribute, Column
-			column,
-												   List<String> mapping) {
-		//the second mapped value is negative, we have to swap indices
-		int positiveIndex = mapping.size() - 2;
-		int negativeIndex = mapping.size() - 1;
-
-		NominalMapping legacyMapping = attribute.getMapping();
-		//the first mapped value is negative
-		legacyMapping.mapString(mapping.get(negativeIndex));
-		legacyMapping.mapString(mapping.get(positiveIndex));
-		CategoricalReader reader = Readers.categoricalReader(column);
-		for (int row = 0; row < columnTable.size(); row++) {
-			int read = reader.read();
-			if (read == negativeIndex) {
-				columnTable.getDataRow(row).set(attribute, BinominalMapping.NEGATIVE_INDEX);
-			} else if (read == positiveIndex) {
-				columnTable.getDataRow(row).set(attribute, BinominalMapping.POSITIVE_INDEX);
-			} else {
-				columnTable.getDataRow(row).set(attribute, Double.NaN);
-			}
-		}
+	private static Void copyNominalColumnToRows(ExampleTable columnTable, Attribute attribute, Column column) {
+		return copyNominalColumnToRows(columnTable, attribute, column, false);
 	}
 
 	/**
-	 * Copy binominals from table to mapping in case the mapping contains first the negative, then the positive value.
+	 * Copies the nominal column, remapping the category indices on read instead of compacting the dictionary first.
+	 * The category indices are read in batches and converted to legacy values in a separate loop.
 	 */
-	private static void copyNegativePositiveToRows(ColumnarExampleTable columnTable, Attribute attribute,
-												   Column column, Dictionary mapping) {
-		//the first mapped value is negative, the order is kept
-		NominalMapping legacyMapping = attribute.getMapping();
-		for (Dictionary.Entry value : mapping) {
-			legacyMapping.mapString(value.getValue());
-		}
-		CategoricalReader reader = Readers.categoricalReader(column);
-		for (int row = 0; row < columnTable.size(); row++) {
-			int read = reader.read();
-			if (read == CategoricalReader.MISSING_CATEGORY) {
-				columnTable.getDataRow(row).set(attribute, Double.NaN);
-			} else {
-				columnTable.getDataRow(row).set(attribute, read - 1d);
-			}
-		}
-	}
-
-	private static Void copyNominalColumnToRows(ColumnarExampleTable columnTable, Attribute attribute, Column column) {
-		column = removeGapsFromDictionary(column);
-
-		copyNewToOldMapping(attribute, column);
-		CategoricalReader reader = Readers.categoricalReader(column);
-		for (int row = 0; row < columnTable.size(); row++) {
-			int read = reader.read();
-			if (read == CategoricalReader.MISSING_CATEGORY) {
-				columnTable.getDataRow(row).set(attribute, Double.NaN);
-			} else {
-				columnTable.getDataRow(row).set(attribute, read - 1d);
+	private static Void copyNominalColumnToRows(ExampleTable columnTable, Attribute attribute, Column column,
+												boolean negativeFirst) {
+		double[] lookup = toLegacyLookup(column, copyNewToOldMapping(attribute, column, negativeFirst));
+		int size = column.size();
+		int[] categories = new int[Math.min(CATEGORY_BATCH_SIZE, size)];
+		double[] values = new double[categories.length];
+		for (int start = 0; start < size; start += categories.length) {
+			int length = readLegacyValues(column, start, categories, lookup, values);
+			for (int i = 0; i < length; i++) {
+				columnTable.getDataRow(start + i).set(attribute, values[i]);
 			}
 		}
 		return null;
 	}
 
-	private static void copyNewToOldMapping(Attribute attribute, Column column) {
-		List<String> mapping = ColumnAccessor.get().getDictionaryList(column.getDictionary());
+	/**
+	 * While studio does not explicitly forbid {@code null} values in dictionaries, some places assume that there are
+	 * none. Therefore, the mapping of the attribute is filled with the compacted dictionary and the returned remapping
+	 * must be applied to the category indices when reading.
+	 *
+	 * @return the remapping to apply or {@code null} if the dictionary has no gaps and no reordering is necessary
+	 */
+	private static DictionaryRemapping copyNewToOldMapping(Attribute attribute, Column column, boolean negativeFirst) {
+		Dictionary dictionary = column.getDictionary();
+		DictionaryRemapping remapping = DictionaryRemapping.of(dictionary, negativeFirst);
+		List<String> mapping = remapping == null ? ColumnAccessor.get().getDictionaryList(dictionary) :
+				remapping.getMapping();
 		NominalMapping legacyMapping = attribute.getMapping();
 		for (int j = 1; j < mapping.size(); j++) {
 			legacyMapping.mapString(mapping.get(j));
 		}
+		return remapping;
 	}
 
 }
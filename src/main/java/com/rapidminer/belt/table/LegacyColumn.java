@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.io.Serializable;
+
+
+/**
+ * A column of an {@link AbstractColumnExampleTable}. As for the columns of other example tables, columns can be read
+ * and written concurrently as long as different threads write different rows.
+ *
+ * @since 1.0.2
+ */
+interface LegacyColumn extends Serializable {
+
+	/**
+	 * @param row
+	 * 		the row index
+	 * @return the value at the row
+	 */
+	double get(int row);
+
+	/**
+	 * @param row
+	 * 		the row index
+	 * @param value
+	 * 		the value to store at the row
+	 */
+	void set(int row, double value);
+
+	/**
+	 * Registers another table referencing the column, e.g. a table created by {@link
+	 * AbstractColumnExampleTable#columnCleanupClone}. The table that created the column via {@link
+	 * AbstractColumnExampleTable#newColumn} already references it. Does nothing by default.
+	 */
+	default void retain() {
+		// nothing to count
+	}
+
+	/**
+	 * Unregisters a table that stopped referencing the column. Columns holding native memory free it as soon as no
+	 * table references them anymore, see {@link #retain()}. Does nothing by default.
+	 */
+	default void release() {
+		// nothing to free
+	}
+
+}
@@ -18,6 +18,7 @@
  */
 package com.rapidminer.belt.table;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 import com.rapidminer.belt.util.ColumnMetaData;
@@ -29,7 +30,9 @@ import com.rapidminer.belt.util.ColumnMetaData;
  *
  * @author Gisa Meier
  */
-public class LegacyRole implements ColumnMetaData {
+public class LegacyRole implements ColumnMetaData, Serializable {
+
+	private static final long serialVersionUID = 5518362004218466402L;
 
 	/**
 	 * Identifier for column meta data of type legacy role.
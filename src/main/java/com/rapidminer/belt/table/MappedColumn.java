@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * {@link LegacyColumn} that stores its values in a memory-mapped temporary file instead of on the Java heap. Used for
+ * the columns added to a {@link ConvertOnWriteExampleTable} once the heap usage is above the threshold set by {@link
+ * ConvertOnWriteExampleTable#PROPERTY_SPILL_THRESHOLD}. The values are stored as doubles, in segments of at most
+ * {@link #SEGMENT_ROWS} rows since a single mapping is limited to {@link Integer#MAX_VALUE} bytes.
+ *
+ * <p>The temporary file is deleted right after it is mapped where the operating system allows it, the mapping stays
+ * valid until the column is garbage collected. Otherwise the file is deleted by {@link #release()} or by the {@link
+ * TemporaryFileReaper} once the column was garbage collected, whichever comes first.
+ *
+ * @since 1.0.2
+ */
+final class MappedColumn implements LegacyColumn {
+
+	private static final long serialVersionUID = -6052296785262381712L;
+
+	/**
+	 * the number of rows in one mapped segment
+	 */
+	static final int SEGMENT_ROWS = 1 << 27;
+
+	private static final int SEGMENT_SHIFT = Integer.numberOfTrailingZeros(SEGMENT_ROWS);
+
+	private static final int SEGMENT_MASK = SEGMENT_ROWS - 1;
+
+	private transient DoubleBuffer[] segments;
+
+	/**
+	 * the reference to the temporary file if it could not be deleted yet, {@code null} otherwise
+	 */
+	private transient volatile TemporaryFileReaper.FileReference file;
+
+	private final int height;
+
+	/**
+	 * Creates a new column filled with {@code 0} backed by a new temporary file.
+	 *
+	 * @param height
+	 * 		the number of rows
+	 * @throws IOException
+	 * 		if the temporary file cannot be created or mapped
+	 */
+	MappedColumn(int height) throws IOException {
+		this.height = height;
+		map();
+	}
+
+	@Override
+	public double get(int row) {
+		return segments[row >>> SEGMENT_SHIFT].get(row & SEGMENT_MASK);
+	}
+
+	@Override
+	public void set(int row, double value) {
+		segments[row >>> SEGMENT_SHIFT].put(row & SEGMENT_MASK, value);
+	}
+
+	/**
+	 * Deletes the temporary file if it was not deleted already. The values can still be read and written afterwards,
+	 * but on some operating systems the file can only be deleted once the column is garbage collected.
+	 */
+	void release() {
+		TemporaryFileReaper.FileReference toDelete = file;
+		if (toDelete != null && toDelete.delete()) {
+			file = null;
+		}
+	}
+
+	/**
+	 * Creates the temporary file, maps it segment by segment and tries to delete it right away.
+	 */
+	private void map() throws IOException {
+		Path newFile = Files.createTempFile("belt-column-", ".tmp");
+		try (FileChannel channel = FileChannel.open(newFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			int numberOfSegments = (height + SEGMENT_ROWS - 1) / SEGMENT_ROWS;
+			DoubleBuffer[] newSegments = new DoubleBuffer[numberOfSegments];
+			for (int i = 0; i < numberOfSegments; i++) {
+				long start = (long) i * SEGMENT_ROWS;
+				int rows = (int) Math.min(SEGMENT_ROWS, height - start);
+				newSegments[i] = channel.map(FileChannel.MapMode.READ_WRITE, start * Double.BYTES,
+						(long) rows * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+			}
+			segments = newSegments;
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(newFile);
+			throw e;
+		}
+		file = TemporaryFileReaper.register(this, newFile);
+		release();
+	}
+
+	/**
+	 * The mapped file cannot be written with standard java serialization, so its values are written instead.
+	 */
+	private void writeObject(ObjectOutputStream oos) throws IOException {
+		oos.defaultWriteObject();
+		for (int row = 0; row < height; row++) {
+			oos.writeDouble(get(row));
+		}
+	}
+
+	/**
+	 * Reads the values written by {@link #writeObject(ObjectOutputStream)} into a new temporary file.
+	 */
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+		map();
+		for (int row = 0; row < height; row++) {
+			set(row, ois.readDouble());
+		}
+	}
+
+}
@@ -18,18 +18,15 @@
  */
 package com.rapidminer.belt.table;
 
-import java.lang.ref.WeakReference;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.rapidminer.belt.column.Column;
-import com.rapidminer.belt.reader.NumericReader;
 import com.rapidminer.belt.reader.ObjectReader;
 import com.rapidminer.belt.reader.SmallReaders;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Attributes;
-import com.rapidminer.tools.container.Pair;
 import com.rapidminer.tools.container.Triple;
 
 
@@ -41,8 +38,9 @@ import com.rapidminer.tools.container.Triple;
  * faster and row-wise reading only slightly slower.
  * <p>
  * Since the date-time columns require a {@link ObjectReader} while the others must be read with a {@link
- * NumericReader}, we first create one list of the date-time columns and one for the others together with a twist-array
- * which maps the original column index to the new index in the table where date-time columns come last.
+ * com.rapidminer.belt.reader.NumericReader}, we first create one list of the date-time columns and one for the others
+ * together with a twist-array which maps the original column index to the new index in the table where date-time
+ * columns come last. The column readers are only created when a column is read.
  *
  * @author Gisa Meier
  * @since 0.7
@@ -50,13 +48,9 @@ import com.rapidminer.tools.container.Triple;
 class MixedTableAccessor extends AbstractTableAccessor {
 
 	/**
-	 * {@link ThreadLocal} with a weak reference that holds the array of numeric readers. The {@link WeakReference} is
-	 * needed since otherwise the readers and thus all columns are kept as long as the thread is alive even if this
-	 * {@link MixedTableAccessor} is already gone. With the weak reference, we might have to recreate the readers in
-	 * case of garbage collection but this is better than the alternative. See also {@link NumericTableAccessor}.
+	 * the pool of unbuffered numeric and date-time readers by thread, see also {@link NumericTableAccessor}
 	 */
-	private final ThreadLocal<WeakReference<Pair<NumericReader[], ObjectReader<Instant>[]>>> readerReference =
-			new ThreadLocal<>();
+	private final ReaderPool<Readers> readerPool = new ReaderPool<>();
 
 	/** all non-date-time columns in the order in which they appear in the table */
 	private final List<Column> numericReadableColumns;
@@ -104,67 +98,26 @@ class MixedTableAccessor extends AbstractTableAccessor {
 
 	@Override
 	Object getReaders() {
-		NumericReader[] readers = new NumericReader[numericReadableColumns.size()];
-		for (int i = 0; i < readers.length; i++) {
-			Column column = numericReadableColumns.get(i);
-			// ignore the advanced columns, will always return {@code 0} for them, see {@link AbstractTableAccessor#getNumericValue}
-			if (BeltConverter.STANDARD_TYPES.contains(column.type().id())) {
-				// use a small numeric reader instead of a normal one to lower the memory consumption by multiple readers
-				readers[i] = SmallReaders.smallNumericReader(column);
-			}
-		}
-		@SuppressWarnings("unchecked")
-		ObjectReader<Instant>[] dateReaders = new ObjectReader[dateTimeColumns.size()];
-		for (int i = 0; i < dateReaders.length; i++) {
-			// use a small numeric reader instead of a normal one to lower the memory consumption by multiple readers
-			dateReaders[i] = SmallReaders.smallObjectReader(dateTimeColumns.get(i), Instant.class);
-		}
-		return new Pair<>(readers, dateReaders);
+		return new Readers(true);
 	}
 
 	@Override
 	Object getUnbufferedReaders() {
 		// if {@link ConvertOnWriteExampleTable#getDataRow} were only called for single rows, the following use of
-		// threadlocal would not be necessary. But if {@link ConvertOnWriteExampleTable#getDataRow} is used to read a
+		// pool would not be necessary. But if {@link ConvertOnWriteExampleTable#getDataRow} is used to read a
 		// whole table, this caching improves the performance
-		WeakReference<Pair<NumericReader[], ObjectReader<Instant>[]>> pairWeakReference = readerReference.get();
-		if (pairWeakReference != null) {
-			Pair<NumericReader[], ObjectReader<Instant>[]> readerPair = pairWeakReference.get();
-			if (readerPair != null) {
-				return readerPair;
-			}
-		}
-		//no cached readers found, create new ones and cache them
-		NumericReader[] readers = new NumericReader[numericReadableColumns.size()];
-		for (int i = 0; i < readers.length; i++) {
-			Column column = numericReadableColumns.get(i);
-			if (BeltConverter.STANDARD_TYPES.contains(column.type().id())) {
-				readers[i] = SmallReaders.unbufferedNumericReader(column);
-			}
-		}
-		@SuppressWarnings("unchecked")
-		ObjectReader<Instant>[] dateReaders = new ObjectReader[dateTimeColumns.size()];
-		for (int i = 0; i < dateReaders.length; i++) {
-			dateReaders[i] = SmallReaders.unbufferedObjectReader(dateTimeColumns.get(i), Instant.class);
-		}
-		Pair<NumericReader[], ObjectReader<Instant>[]> readerPair = new Pair<>(readers, dateReaders);
-		readerReference.set(new WeakReference<>(readerPair));
-		return readerPair;
+		return readerPool.get(() -> new Readers(false));
 	}
 
 
 	@Override
 	double get(int row, int columnIndex, Object beltReader) {
 		int indexInTwisted = twist[columnIndex];
+		Readers readers = (Readers) beltReader;
 		if (indexInTwisted < numericReadableColumns.size()) {
-			@SuppressWarnings("unchecked")
-			NumericReader[] firstReaders = ((Pair<NumericReader[], ObjectReader<Instant>[]>) beltReader).getFirst();
-			return getNumericValue(row, columnIndex, firstReaders[indexInTwisted]);
+			return getNumericValue(row, columnIndex, readers.numericReaders, indexInTwisted);
 		} else {
-			@SuppressWarnings("unchecked")
-			ObjectReader<Instant>[] secondReaders =
-					((Pair<NumericReader[], ObjectReader<Instant>[]>) beltReader).getSecond();
-			return getDateTime(row, indexInTwisted, secondReaders);
+			return getDateTime(row, indexInTwisted, readers);
 		}
 	}
 
@@ -185,10 +138,10 @@ class MixedTableAccessor extends AbstractTableAccessor {
 	/**
 	 * Get the date-time value at the given position by extracting the epoch millis.
 	 */
-	private double getDateTime(int rowIndex, int twistedColumnIndex, ObjectReader<Instant>[] readers) {
+	private double getDateTime(int rowIndex, int twistedColumnIndex, Readers readers) {
 		//calculate index in object reader array
 		int readerIndex = twistedColumnIndex - numericReadableColumns.size();
-		ObjectReader<Instant> reader = readers[readerIndex];
+		ObjectReader<Instant> reader = readers.dateTimeReader(readerIndex);
 		// set the position only if not already at the right position
 		if (reader.position() != rowIndex - 1) {
 			reader.setPosition(rowIndex - 1);
@@ -196,4 +149,38 @@ class MixedTableAccessor extends AbstractTableAccessor {
 		Instant instant = reader.read();
 		return instant == null ? Double.NaN : BeltConverter.toEpochMilli(instant);
 	}
+
+	/**
+	 * The numeric and date-time readers of one reader object, created on first access. Must only be used by one
+	 * thread.
+	 */
+	private final class Readers {
+
+		private final LazyNumericReaders numericReaders;
+		private final ObjectReader<Instant>[] dateTimeReaders;
+		private final boolean buffered;
+
+		@SuppressWarnings("unchecked")
+		private Readers(boolean buffered) {
+			this.numericReaders = new LazyNumericReaders(numericReadableColumns, buffered);
+			this.dateTimeReaders = new ObjectReader[dateTimeColumns.size()];
+			this.buffered = buffered;
+		}
+
+		/**
+		 * Returns the reader for the date-time column at the given index, creating it on the first call.
+		 */
+		private ObjectReader<Instant> dateTimeReader(int index) {
+			ObjectReader<Instant> reader = dateTimeReaders[index];
+			if (reader == null) {
+				Column column = dateTimeColumns.get(index);
+				// use a small reader instead of a normal one to lower the memory consumption by multiple readers
+				reader = buffered ? SmallReaders.smallObjectReader(column, Instant.class) :
+						SmallReaders.unbufferedObjectReader(column, Instant.class);
+				dateTimeReaders[index] = reader;
+			}
+			return reader;
+		}
+	}
+
 }
\ No newline at end of file
@@ -18,12 +18,10 @@
  */
 package com.rapidminer.belt.table;
 
-import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.List;
 
 import com.rapidminer.belt.column.Column;
-import com.rapidminer.belt.reader.NumericReader;
-import com.rapidminer.belt.reader.SmallReaders;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Attributes;
 import com.rapidminer.tools.container.Triple;
@@ -34,7 +32,8 @@ import com.rapidminer.tools.container.Triple;
  * numerically. While reading a whole table numerically would be normally an use case for a {@link
  * com.rapidminer.belt.reader.NumericRowReader}, benchmarks have shown that using a row reader has horrible performance
  * when the table is read column-wise. Therefore, we use an array of column readers which make column-wise reading much
- * faster and row-wise reading only slightly slower.
+ * faster and row-wise reading only slightly slower. The column readers are only created when a column is read, see
+ * {@link LazyNumericReaders}.
  *
  * @author Gisa Meier
  * @since 0.7
@@ -42,13 +41,15 @@ import com.rapidminer.tools.container.Triple;
 class NumericTableAccessor extends AbstractTableAccessor {
 
 	/**
-	 * {@link ThreadLocal} with a weak reference that holds the array of numeric readers. The {@link WeakReference} is
-	 * needed since otherwise the readers and thus all columns are kept as long as the thread is alive even if this
-	 * {@link NumericTableAccessor} is already gone. With the weak reference, we might have to recreate the readers in
-	 * case of garbage collection but this is better than the alternative. See also
-	 * https://dzone.com/articles/painless-introduction-javas-threadlocal-storage
+	 * the pool of unbuffered numeric readers by thread. It belongs to this accessor so that the readers and thus all
+	 * columns are not kept alive by the threads after this {@link NumericTableAccessor} is gone.
 	 */
-	private final ThreadLocal<WeakReference<NumericReader[]>> readersReference = new ThreadLocal<>();
+	private final ReaderPool<LazyNumericReaders> readerPool = new ReaderPool<>();
+
+	/**
+	 * the columns of the table, read by lazily created readers
+	 */
+	private final List<Column> columns;
 
 	/**
 	 * Creates a new accessor for a belt table without date-time columns.
@@ -62,51 +63,26 @@ class NumericTableAccessor extends AbstractTableAccessor {
 	 */
 	NumericTableAccessor(Table table, List<Attribute> attributes, int unusedAttributes) {
 		super(table, attributes, unusedAttributes);
+		columns = Arrays.asList(table.getColumns());
 	}
 
 	@Override
 	Object getReaders() {
-		NumericReader[] readers = new NumericReader[table.width()];
-		for (int i = 0; i < readers.length; i++) {
-			Column column = table.column(i);
-			// ignore the advanced columns, will always return {@code 0} for them, see {@link AbstractTableAccessor#getNumericValue}
-			if (BeltConverter.STANDARD_TYPES.contains(column.type().id())) {
-				// use a small numeric reader instead of a normal one to lower the memory consumption by multiple readers
-				readers[i] = SmallReaders.smallNumericReader(column);
-			}
-		}
-		return readers;
+		return new LazyNumericReaders(columns, true);
 	}
 
 	@Override
 	Object getUnbufferedReaders() {
 		// if {@link ConvertOnWriteExampleTable#getDataRow} were only called for single rows, the following use of
-		// threadlocal would not be necessary. But if {@link ConvertOnWriteExampleTable#getDataRow} is used to read a
+		// pool would not be necessary. But if {@link ConvertOnWriteExampleTable#getDataRow} is used to read a
 		// whole table, this caching improves the performance
-		WeakReference<NumericReader[]> numericReadersWeakReference = readersReference.get();
-		if (numericReadersWeakReference != null) {
-			NumericReader[] numericReaders = numericReadersWeakReference.get();
-			if (numericReaders != null) {
-				return numericReaders;
-			}
-		}
-		//no cached readers found, create new ones and cache them
-		NumericReader[] readers = new NumericReader[table.width()];
-		for (int i = 0; i < readers.length; i++) {
-			Column column = table.column(i);
-			if (BeltConverter.STANDARD_TYPES.contains(column.type().id())) {
-				readers[i] = SmallReaders.unbufferedNumericReader(column);
-			}
-		}
-		readersReference.set(new WeakReference<>(readers));
-		return readers;
+		return readerPool.get(() -> new LazyNumericReaders(columns, false));
 	}
 
 
 	@Override
 	double get(int rowIndex, int columnIndex, Object readerObject) {
-		NumericReader[] readers = (NumericReader[]) readerObject;
-		return getNumericValue(rowIndex, columnIndex, readers[columnIndex]);
+		return getNumericValue(rowIndex, columnIndex, (LazyNumericReaders) readerObject, columnIndex);
 	}
 
 	@Override
@@ -0,0 +1,253 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.table.ExampleTable;
+
+
+/**
+ * {@link ExampleTable} that stores every column in an off-heap {@link DoubleBuffer}. The values of large converted
+ * tables then do not live on the Java heap and do not need to be traced by the garbage collector. The native memory of
+ * a column is freed explicitly as soon as no table references it anymore, i.e. after it was removed via {@link
+ * #removeAttribute(int)} or {@link #close()} from this table and every table created by {@link
+ * #columnCleanupClone(Attributes)} that shares it. Otherwise, it is freed when the buffer is garbage collected.
+ *
+ * @since 1.0.2
+ */
+final class OffHeapExampleTable extends AbstractColumnExampleTable implements AutoCloseable {
+
+	private static final long serialVersionUID = -3504867245712295061L;
+
+	/**
+	 * frees the native memory of a direct buffer, does nothing if the internal API for that is not accessible
+	 */
+	private static final Consumer<ByteBuffer> FREE = freeMemory();
+
+	/**
+	 * Creates a new table with a zero-filled column for every attribute. The table index of every attribute is set to
+	 * its position in the list.
+	 *
+	 * @param attributeList
+	 * 		the attributes of the table
+	 * @param height
+	 * 		the number of rows
+	 * @throws IllegalArgumentException
+	 * 		if the height is negative or too big for a direct buffer
+	 */
+	OffHeapExampleTable(List<Attribute> attributeList, int height) {
+		super(attributeList, checkHeight(height));
+	}
+
+	private OffHeapExampleTable(Attribute[] attributes, LegacyColumn[] columns, int height) {
+		super(attributes, columns, height);
+	}
+
+	@Override
+	LegacyColumn newColumn(Attribute attribute, int height) {
+		return new OffHeapColumn(height);
+	}
+
+	@Override
+	OffHeapExampleTable newTable(Attribute[] attributes, LegacyColumn[] columns, int height) {
+		return new OffHeapExampleTable(attributes, columns, height);
+	}
+
+	@Override
+	public OffHeapExampleTable columnCleanupClone(Attributes attributes) {
+		return (OffHeapExampleTable) super.columnCleanupClone(attributes);
+	}
+
+	/**
+	 * Removes all attributes so that the native memory of the columns is freed right away unless they are shared with
+	 * a table created by {@link #columnCleanupClone(Attributes)}. Call this when the table is not used anymore, e.g.
+	 * after an example set was switched to its column cleanup clone and no other example set uses this table.
+	 */
+	@Override
+	public synchronized void close() {
+		for (int i = 0; i < getNumberOfAttributes(); i++) {
+			if (getAttribute(i) != null) {
+				removeAttribute(i);
+			}
+		}
+	}
+
+	/**
+	 * Checks that the height fits into a direct buffer of doubles.
+	 */
+	private static int checkHeight(int height) {
+		if (height < 0 || height > Integer.MAX_VALUE / Double.BYTES) {
+			throw new IllegalArgumentException("Height must be between 0 and " + Integer.MAX_VALUE / Double.BYTES);
+		}
+		return height;
+	}
+
+	/**
+	 * Finds the way to free the memory of direct buffers: {@code Unsafe.invokeCleaner} on Java 9 and later, the cleaner
+	 * of the buffer on Java 8. Both are internal APIs and are therefore accessed reflectively.
+	 */
+	private static Consumer<ByteBuffer> freeMemory() {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			Object unsafe = theUnsafe.get(null);
+			return buffer -> invokeQuietly(invokeCleaner, unsafe, buffer);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// Java 8, use the cleaner of the buffer
+		}
+		try {
+			Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+			Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+			return buffer -> {
+				Object bufferCleaner = invokeQuietly(cleaner, buffer);
+				if (bufferCleaner != null) {
+					invokeQuietly(clean, bufferCleaner);
+				}
+			};
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// the memory is freed when the buffer is garbage collected
+			return buffer -> {};
+		}
+	}
+
+	/**
+	 * Invokes the method and ignores failures, since the memory is freed by the garbage collector in that case.
+	 *
+	 * @return the result or {@code null} if the invocation failed
+	 */
+	private static Object invokeQuietly(Method method, Object target, Object... arguments) {
+		try {
+			return method.invoke(target, arguments);
+		} catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Column backed by a direct {@link DoubleBuffer}. Counts the tables that reference it so that the native memory can
+	 * be freed when the last one releases it.
+	 */
+	private static final class OffHeapColumn implements LegacyColumn {
+
+		private static final long serialVersionUID = 5279160329856094412L;
+
+		/**
+		 * the buffer after the memory was freed, so that late reads fail instead of accessing freed memory
+		 */
+		private static final DoubleBuffer FREED = DoubleBuffer.allocate(0);
+
+		/**
+		 * the direct buffer owning the native memory
+		 */
+		private transient ByteBuffer memory;
+
+		/**
+		 * the view of the {@link #memory} as doubles
+		 */
+		private transient DoubleBuffer buffer;
+
+		/**
+		 * the number of tables referencing the column
+		 */
+		private transient AtomicInteger owners;
+
+		private OffHeapColumn(int height) {
+			allocate(height);
+		}
+
+		@Override
+		public double get(int row) {
+			return buffer.get(row);
+		}
+
+		@Override
+		public void set(int row, double value) {
+			buffer.put(row, value);
+		}
+
+		@Override
+		public void retain() {
+			owners.incrementAndGet();
+		}
+
+		/**
+		 * Frees the native memory if no table references the column anymore. Reading or writing the column afterwards
+		 * throws an {@link IndexOutOfBoundsException}.
+		 */
+		@Override
+		public void release() {
+			if (owners.decrementAndGet() == 0) {
+				ByteBuffer freed = memory;
+				buffer = FREED;
+				memory = null;
+				FREE.accept(freed);
+			}
+		}
+
+		/**
+		 * Allocates a new zero-filled off-heap buffer, owned by one table.
+		 */
+		private void allocate(int height) {
+			memory = ByteBuffer.allocateDirect(height * Double.BYTES).order(ByteOrder.nativeOrder());
+			buffer = memory.asDoubleBuffer();
+			owners = new AtomicInteger(1);
+		}
+
+		/**
+		 * The off-heap buffer cannot be written with standard java serialization, so its values are written instead.
+		 */
+		private void writeObject(ObjectOutputStream oos) throws IOException {
+			oos.defaultWriteObject();
+			int height = buffer.capacity();
+			oos.writeInt(height);
+			for (int row = 0; row < height; row++) {
+				oos.writeDouble(buffer.get(row));
+			}
+		}
+
+		/**
+		 * Reads the values written by {@link #writeObject(ObjectOutputStream)} into a new off-heap buffer.
+		 */
+		private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+			ois.defaultReadObject();
+			int height = ois.readInt();
+			allocate(height);
+			for (int row = 0; row < height; row++) {
+				buffer.put(row, ois.readDouble());
+			}
+		}
+	}
+
+}
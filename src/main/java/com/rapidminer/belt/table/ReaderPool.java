@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+
+/**
+ * Bounded pool of readers for one {@link AbstractTableAccessor}, with one entry per thread since readers must not be
+ * shared between threads. If more threads than allowed by the {@link #PROPERTY_SIZE} read from the accessor, the
+ * readers of the thread that read least recently are dropped. In contrast to weakly referenced readers in a {@link
+ * ThreadLocal}, the readers stay cached independent of garbage collection and are not kept alive by the threads after
+ * the accessor is gone.
+ *
+ * @param <T>
+ * 		the type of the reader object
+ * @since 1.0.2
+ */
+final class ReaderPool<T> {
+
+	/**
+	 * system property for the maximal number of threads with pooled readers per accessor
+	 */
+	static final String PROPERTY_SIZE = "rapidminer.belt.convert_on_write.reader_pool_size";
+
+	/**
+	 * the pool size used if the system property is not set or invalid
+	 */
+	static final int DEFAULT_SIZE = 16;
+
+	private static final int SIZE = configuredSize();
+
+	/**
+	 * the readers by thread in the order of the last access
+	 */
+	private final Map<Thread, T> readers;
+
+	/**
+	 * the entry found by the last lookup, allows to skip the synchronization if the same thread reads repeatedly
+	 */
+	private volatile Entry<T> last;
+
+	/**
+	 * Creates a pool with the size given by the {@link #PROPERTY_SIZE}.
+	 */
+	ReaderPool() {
+		this(SIZE);
+	}
+
+	/**
+	 * Creates a pool with the given size.
+	 *
+	 * @param maxSize
+	 * 		the maximal number of threads with pooled readers, must be positive
+	 */
+	ReaderPool(int maxSize) {
+		readers = new LinkedHashMap<Thread, T>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = -6413890261283478870L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Thread, T> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the readers of the current thread, creating them if they are not pooled.
+	 *
+	 * @param factory
+	 * 		creates new readers
+	 * @return the readers to be used only by the current thread
+	 */
+	T get(Supplier<T> factory) {
+		Thread thread = Thread.currentThread();
+		Entry<T> lastEntry = last;
+		if (lastEntry != null && lastEntry.thread == thread) {
+			return lastEntry.readers;
+		}
+		T threadReaders;
+		synchronized (readers) {
+			threadReaders = readers.get(thread);
+		}
+		if (threadReaders == null) {
+			// create the readers outside of the lock, only the current thread can add readers for itself
+			threadReaders = factory.get();
+			synchronized (readers) {
+				readers.put(thread, threadReaders);
+			}
+		}
+		last = new Entry<>(thread, threadReaders);
+		return threadReaders;
+	}
+
+	/**
+	 * @return the number of threads with pooled readers
+	 */
+	int size() {
+		synchronized (readers) {
+			return readers.size();
+		}
+	}
+
+	/**
+	 * Reads the {@link #PROPERTY_SIZE}.
+	 */
+	private static int configuredSize() {
+		String property = System.getProperty(PROPERTY_SIZE);
+		if (property != null) {
+			try {
+				int parsed = Integer.parseInt(property);
+				if (parsed > 0) {
+					return parsed;
+				}
+			} catch (NumberFormatException e) {
+				// use the default size
+			}
+		}
+		return DEFAULT_SIZE;
+	}
+
+	/**
+	 * The readers of one thread.
+	 */
+	private static final class Entry<T> {
+
+		private final Thread thread;
+		private final T readers;
+
+		private Entry(Thread thread, T readers) {
+			this.thread = thread;
+			this.readers = readers;
+		}
+	}
+
+}
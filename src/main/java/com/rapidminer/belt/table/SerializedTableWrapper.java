@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+
+import com.rapidminer.example.set.HeaderExampleSet;
+
+
+/**
+ * Serialized form of a {@link DoubleTableWrapper} or {@link DatetimeTableWrapper}. The table is written via the {@link
+ * ColumnarTableSerializer} and the wrapper is recreated from it on deserialization, so the table is never converted
+ * into an example table.
+ *
+ * @since 1.0.2
+ */
+final class SerializedTableWrapper implements Serializable {
+
+	private static final long serialVersionUID = -6094376214783052312L;
+
+	/**
+	 * written by {@link #writeObject(ObjectOutputStream)}
+	 */
+	private transient Table table;
+	private final HeaderExampleSet header;
+	private final boolean dateTime;
+
+	/**
+	 * Creates the serialized form of a wrapper.
+	 *
+	 * @param table
+	 * 		the wrapped table
+	 * @param header
+	 * 		the header of the wrapper
+	 * @param dateTime
+	 * 		whether the wrapper is a {@link DatetimeTableWrapper}
+	 */
+	SerializedTableWrapper(Table table, HeaderExampleSet header, boolean dateTime) {
+		this.table = table;
+		this.header = header;
+		this.dateTime = dateTime;
+	}
+
+	private void writeObject(ObjectOutputStream oos) throws IOException {
+		oos.defaultWriteObject();
+		ColumnarTableSerializer.write(table, null, oos, null);
+	}
+
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+		table = ColumnarTableSerializer.read(ois);
+	}
+
+	/**
+	 * Recreates the wrapper.
+	 */
+	private Object readResolve() throws ObjectStreamException {
+		if (dateTime) {
+			return new DatetimeTableWrapper(table, header);
+		}
+		return new DoubleTableWrapper(table, header);
+	}
+
+}
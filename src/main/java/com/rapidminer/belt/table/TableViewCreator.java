@@ -28,6 +28,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 
 import com.rapidminer.adaption.belt.IOTable;
@@ -38,6 +40,7 @@ import com.rapidminer.belt.column.Column;
 import com.rapidminer.belt.column.ColumnType;
 import com.rapidminer.belt.column.Columns;
 import com.rapidminer.belt.column.Dictionary;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.AttributeRole;
 import com.rapidminer.example.Attributes;
@@ -63,6 +66,33 @@ public enum TableViewCreator{
 
 	INSTANCE;
 
+	/**
+	 * Policy for converting the belt table of a view created by {@link #convertOnWriteView(IOTable, boolean,
+	 * ConcurrencyContext, PreConversion)} in the background, so that the conversion overlaps with other work instead of
+	 * stalling the first write.
+	 *
+	 * @since 1.0.2
+	 */
+	public enum PreConversion {
+
+		/**
+		 * Convert only when necessary, in the thread that writes.
+		 */
+		NONE,
+
+		/**
+		 * Start converting a belt column in the background on the first write into it. Until the conversion is done,
+		 * written values are kept in a sparse overlay.
+		 */
+		ON_FIRST_WRITE,
+
+		/**
+		 * Start converting the whole table in the background right away. Reading and writing is possible during the
+		 * conversion.
+		 */
+		EAGER
+	}
+
 	/**
 	 * Message for constant replacement of advanced columns in {@link ConvertOnWriteExampleTable}
 	 */
@@ -85,9 +115,30 @@ public enum TableViewCreator{
 	 * 		if the table cannot be converted because it contains advanced columns
 	 */
 	public ExampleSet createView(Table table) {
+		return createView(table, null);
+	}
+
+	/**
+	 * Wraps the {@link Table} into an {@link ExampleSet} in order to visualize it. Nominal dictionaries that need
+	 * adjustment are adjusted in parallel using the given context.
+	 *
+	 * @param table
+	 * 		the table
+	 * @param context
+	 * 		the context to use for adjusting dictionaries and converting in parallel, can be {@code null} for sequential
+	 * 		adjustment
+	 * @return a view example set
+	 * @throws NullPointerException
+	 * 		if table is {@code null}
+	 * @throws ConversionException
+	 * 		if the table cannot be converted because it contains advanced columns
+	 * @since 1.0.2
+	 */
+	public ExampleSet createView(Table table, ConcurrencyContext context) {
 		Objects.requireNonNull(table, "table must not be null");
 
-		table = adjustDictionaries(table);
+		// gaps and the order of boolean dictionaries are handled on read by the wrappers
+		table = addPlaceholderNegatives(table, context);
 
 		for (int i = 0; i < table.width(); i++) {
 			Column.TypeId id = table.column(i).type().id();
@@ -114,8 +165,61 @@ public enum TableViewCreator{
 	 * @since 0.7
 	 */
 	public ExampleSet convertOnWriteView(IOTable ioTable, boolean throwOnAdvanced) {
+		return convertOnWriteView(ioTable, throwOnAdvanced, null);
+	}
+
+	/**
+	 * Wraps the {@link Table} of the {@link IOTable} into an {@link ExampleSet} so that adding additional attributes
+	 * works without conversion. Nominal dictionaries that need adjustment are adjusted in parallel using the given
+	 * context. The context is also used if the view must be converted later on, e.g. because too many values are
+	 * written into the columns of the table.
+	 *
+	 * @param ioTable
+	 * 		the table to view as an {@link ExampleSet}
+	 * @param throwOnAdvanced
+	 * 		whether to throw an exception in case of advanced columns. If this is {@code false} the advanced column is
+	 * 		viewed as a nominal column with a constant error message and it is recovered on the conversion back to {@link
+	 *        IOTable}
+	 * @param context
+	 * 		the context to use for adjusting dictionaries and converting in parallel, can be {@code null} for sequential
+	 * 		adjustment
+	 * @return a view of the ioTable that only does a conversion on a write operation into existing table data
+	 * @throws ConversionException
+	 * 		if the table contains advanced columns and thrownOnAdvanced is {@code true}
+	 * @since 1.0.2
+	 */
+	public ExampleSet convertOnWriteView(IOTable ioTable, boolean throwOnAdvanced, ConcurrencyContext context) {
+		return convertOnWriteView(ioTable, throwOnAdvanced, context, PreConversion.NONE);
+	}
+
+	/**
+	 * Wraps the {@link Table} of the {@link IOTable} into an {@link ExampleSet} so that adding additional attributes
+	 * works without conversion, as {@link #convertOnWriteView(IOTable, boolean, ConcurrencyContext)}. Additionally,
+	 * the belt columns are converted in the background according to the given policy. Use this if the view will
+	 * certainly be written.
+	 *
+	 * @param ioTable
+	 * 		the table to view as an {@link ExampleSet}
+	 * @param throwOnAdvanced
+	 * 		whether to throw an exception in case of advanced columns. If this is {@code false} the advanced column is
+	 * 		viewed as a nominal column with a constant error message and it is recovered on the conversion back to {@link
+	 *        IOTable}
+	 * @param context
+	 * 		the context to use for adjusting dictionaries and converting, also in the background, can be {@code null}
+	 * 		to convert sequentially and only on demand, without background conversion
+	 * @param preConversion
+	 * 		when to start converting in the background
+	 * @return a view of the ioTable
+	 * @throws ConversionException
+	 * 		if the table contains advanced columns and thrownOnAdvanced is {@code true}
+	 * @since 1.0.2
+	 */
+	public ExampleSet convertOnWriteView(IOTable ioTable, boolean throwOnAdvanced, ConcurrencyContext context,
+										 PreConversion preConversion) {
+		Objects.requireNonNull(preConversion, "pre-conversion policy must not be null");
 		Table table = ioTable.getTable();
-		table = TableViewCreator.INSTANCE.adjustDictionaries(table);
+		// gaps and the order of boolean dictionaries are handled on read by the table accessor
+		table = addPlaceholderNegatives(table, context);
 		Attributes attributes = new SimpleAttributes();
 		List<Attribute> attributeList = new ArrayList<>();
 		List<String> labels = table.labels();
@@ -147,11 +251,16 @@ public enum TableViewCreator{
 			i++;
 		}
 		convertRoles(table, attributes);
-		ExampleSet set = new ConvertOnWriteExampleTable(table, attributeList, numberOfDatetime).createExampleSet();
+		ConvertOnWriteExampleTable exampleTable =
+				new ConvertOnWriteExampleTable(table, attributeList, numberOfDatetime, context, preConversion);
+		ExampleSet set = exampleTable.createExampleSet();
 		FromTableConverter.adjustAttributes(attributes, attributeList, set);
 		set.getAnnotations().addAll(ioTable.getAnnotations());
 		set.setSource(ioTable.getSource());
 		storeBeltMetaDataInExampleSetUserData(table, set);
+		if (preConversion == PreConversion.EAGER) {
+			exampleTable.convertInBackground();
+		}
 		return set;
 	}
 
@@ -209,43 +318,51 @@ public enum TableViewCreator{
 
 
 	/**
-	 * Replaces categorical columns with gap containing dictionaries with remapped ones and remapps columns with
-	 * boolean dictionaries that have not the negative index as first index.
-	 *
-	 * Package private for tests.
+	 * Replaces nominal columns with non-empty boolean dictionaries without negative value by columns that have a
+	 * placeholder negative value first. All other dictionary adjustments are done on read via {@link
+	 * DictionaryRemapping}s. The columns are adjusted in parallel if a context is given and more than one column needs
+	 * adjustment.
 	 */
-	Table adjustDictionaries(Table table) {
-		Column[] newColumns = null;
+	Table addPlaceholderNegatives(Table table, ConcurrencyContext context) {
+		List<Integer> toAdjust = new ArrayList<>();
 		int index = 0;
 		for (Column column : table.getColumns()) {
-			if (column.type().id() == Column.TypeId.NOMINAL) {
-				Dictionary dict = column.getDictionary();
-				if (dict.size() != dict.maximalIndex()) {
-					if (newColumns == null) {
-						newColumns = Arrays.copyOf(table.getColumns(), table.width());
-					}
-					newColumns[index] = Columns.compactDictionary(column);
-					dict = newColumns[index].getDictionary();
-
-				}
-				if (dict.isBoolean() && dict.getNegativeIndex() != 1 && dict.size() > 0) {
-					//binominal attributes need to have the first index as negative
-
-					CategoricalColumn rightDictionaryColumn = getColumnWithAdjustedDictionary(dict);
-
-					if (newColumns == null) {
-						newColumns = Arrays.copyOf(table.getColumns(), table.width());
-					}
-					newColumns[index] = Columns.changeDictionary(column, rightDictionaryColumn);
-				}
+			if (DictionaryRemapping.needsPlaceholderNegative(column)) {
+				toAdjust.add(index);
 			}
 			index++;
 		}
-		if (newColumns == null) {
+		if (toAdjust.isEmpty()) {
 			return table;
+		}
+
+		Column[] newColumns = Arrays.copyOf(table.getColumns(), table.width());
+		if (context == null || toAdjust.size() < 2) {
+			for (int columnIndex : toAdjust) {
+				newColumns[columnIndex] = addPlaceholderNegative(newColumns[columnIndex]);
+			}
 		} else {
-			return new Table(newColumns, table.labelArray(), table.getMetaData());
+			List<Callable<Void>> adjusters = new ArrayList<>(toAdjust.size());
+			for (int columnIndex : toAdjust) {
+				adjusters.add(() -> {
+					newColumns[columnIndex] = addPlaceholderNegative(newColumns[columnIndex]);
+					return null;
+				});
+			}
+			try {
+				context.call(adjusters);
+			} catch (ExecutionException e) {
+				ToTableConverter.handleExecutionException(e);
+			}
 		}
+		return new Table(newColumns, table.labelArray(), table.getMetaData());
+	}
+
+	/**
+	 * Changes the dictionary of the boolean column so that it has a placeholder negative value first.
+	 */
+	private Column addPlaceholderNegative(Column column) {
+		return Columns.changeDictionary(column, getColumnWithAdjustedDictionary(column.getDictionary()));
 	}
 
 	/**
@@ -269,7 +386,7 @@ public enum TableViewCreator{
 	 * Converts the dictionary of the column to a nominal mapping and sets it for the attribute.
 	 */
 	private void setMapping(Column column, Attribute attribute) {
-		List<String> mapping = ColumnAccessor.get().getDictionaryList(column.getDictionary());
+		List<String> mapping = DictionaryRemapping.getMapping(column.getDictionary());
 		if (attribute instanceof BinominalAttribute) {
 			BinominalMapping binMapping = new BinominalMapping();
 			if (mapping.size() > 1) {
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Deletes the temporary files of {@link MappedColumn}s that could not be deleted while the column was in use. A file
+ * is deleted once its owner was garbage collected. Files that still cannot be deleted then, for example because the
+ * mapping is only released with the mapped buffers, are retried whenever another file is registered or released and
+ * a last time when the JVM exits.
+ *
+ * @since 1.0.2
+ */
+final class TemporaryFileReaper {
+
+	/**
+	 * notified when the owners of files are garbage collected
+	 */
+	private static final ReferenceQueue<Object> COLLECTED = new ReferenceQueue<>();
+
+	/**
+	 * keeps the phantom references reachable until their owners are collected
+	 */
+	private static final Set<FileReference> REFERENCES = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * the files whose owners were collected but that could not be deleted yet
+	 */
+	private static final Set<Path> PENDING = ConcurrentHashMap.newKeySet();
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(TemporaryFileReaper::deleteAll, "belt-temporary-files"));
+	}
+
+	private TemporaryFileReaper() {
+		throw new AssertionError("Utility class");
+	}
+
+	/**
+	 * Registers the file so that it is deleted once the owner is garbage collected.
+	 *
+	 * @param owner
+	 * 		the object using the file, must not be referenced by the file reference
+	 * @param file
+	 * 		the temporary file
+	 * @return the reference to delete the file explicitly with
+	 */
+	static FileReference register(Object owner, Path file) {
+		deleteCollected();
+		FileReference reference = new FileReference(owner, file, COLLECTED);
+		REFERENCES.add(reference);
+		return reference;
+	}
+
+	/**
+	 * Deletes the files of the collected owners and retries the files that could not be deleted before.
+	 */
+	static void deleteCollected() {
+		Reference<?> reference;
+		while ((reference = COLLECTED.poll()) != null) {
+			FileReference fileReference = (FileReference) reference;
+			if (REFERENCES.remove(fileReference) && !delete(fileReference.file)) {
+				PENDING.add(fileReference.file);
+			}
+		}
+		PENDING.removeIf(TemporaryFileReaper::delete);
+	}
+
+	/**
+	 * Tries to delete all remaining files, used when the JVM exits.
+	 */
+	private static void deleteAll() {
+		for (FileReference reference : REFERENCES) {
+			delete(reference.file);
+		}
+		PENDING.removeIf(TemporaryFileReaper::delete);
+	}
+
+	/**
+	 * @return whether the file does not exist anymore
+	 */
+	private static boolean delete(Path file) {
+		try {
+			Files.deleteIfExists(file);
+			return true;
+		} catch (IOException | SecurityException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Phantom reference that remembers the file of its owner.
+	 */
+	static final class FileReference extends PhantomReference<Object> {
+
+		private final Path file;
+
+		private FileReference(Object owner, Path file, ReferenceQueue<Object> queue) {
+			super(owner, queue);
+			this.file = file;
+		}
+
+		/**
+		 * Tries to delete the file now. Once it is deleted, it is not tracked anymore.
+		 *
+		 * @return whether the file was deleted
+		 */
+		boolean delete() {
+			deleteCollected();
+			if (TemporaryFileReaper.delete(file)) {
+				REFERENCES.remove(this);
+				clear();
+				return true;
+			}
+			return false;
+		}
+	}
+
+}
@@ -177,7 +177,7 @@ enum ToTableConverter {
 		// check example table implementation
 		if (threadSafe) {
 			ExampleTable table = getExampleTable(exampleSet);
-			threadSafe = table instanceof ColumnarExampleTable;
+			threadSafe = table instanceof ColumnarExampleTable || table instanceof AbstractColumnExampleTable;
 		}
 
 		threadSafe = areAttributesThreadsafe(exampleSet, threadSafe);
@@ -256,7 +256,8 @@ enum ToTableConverter {
 
 	/**
 	 * Converts the simpleOrMappingBased example set to an {@link IOTable}, reusing columns of the underlying belt
-	 * {@link Table} whenever possible.
+	 * {@link Table} whenever possible. Whether a column can be reused is decided per attribute, independent of the
+	 * {@link Attributes} implementation of the example set, see {@link #convertWithReuse}.
 	 *
 	 * @param simpleOrMappingBased
 	 * 		the example set to convert that is either simple or stacked mapping based with a {@link
@@ -270,16 +271,16 @@ enum ToTableConverter {
 	private static IOTable convertWrapped(ExampleSet simpleOrMappingBased, SimpleExampleSet simpleParent,
 										  ConcurrencyContext context) {
 		ConvertOnWriteExampleTable exampleTable = (ConvertOnWriteExampleTable) simpleOrMappingBased.getExampleTable();
-		ColumnarExampleTable newColumns = exampleTable.getNewColumns();
+		TypedExampleTable newColumns = exampleTable.getNewColumns();
 		Table table = exampleTable.getTable();
-		boolean simpleAttributes = areAttributesSimple(simpleOrMappingBased);
-		if (table == null || !simpleAttributes) {
+		if (table == null) {
 			// cannot reuse wrapped table, use normal conversion
-			Table newTable = doFittingConversion(simpleOrMappingBased, areAttributesThreadsafe(simpleOrMappingBased, simpleAttributes), context);
+			Table newTable = doFittingConversion(simpleOrMappingBased, areAttributesThreadsafe(simpleOrMappingBased,
+					true), context);
 			return createIOTable(simpleOrMappingBased, newTable);
 		}
 
-		Table newTable = convertWithReuse(simpleOrMappingBased, simpleParent, newColumns, table, context);
+		Table newTable = convertWithReuse(simpleOrMappingBased, simpleParent, exampleTable, newColumns, table, context);
 		int[] mapping = null;
 		ExampleSet testSet = simpleOrMappingBased;
 		// go through all parents and collapse the mappings until reaching the simple example set
@@ -298,14 +299,19 @@ enum ToTableConverter {
 	}
 
 	/**
-	 * Converts to a new belt table reusing columns from the given table if possible.
+	 * Converts to a new belt table reusing columns from the given table if possible. A column is reused for every
+	 * attribute of a safe class without transformations whose table index refers to a column of the table or of the
+	 * additional columns, no matter how it was renamed or which role it has. All other attributes are read via the
+	 * simple example set.
 	 *
 	 * @param attributeExampleSet
 	 * 		the example set that determines the attributes
 	 * @param simpleExampleSet
 	 * 		the underlying simple example set, can be the same as the one above
+	 * @param exampleTable
+	 * 		the underlying example table that knows which columns of the belt table were modified
 	 * @param additionalColumns
-	 * 		the additionally added columns, can be {@code null}
+	 * 		the additionally added columns, {@code null} if there are none or the example table was converted
 	 * @param table
 	 * 		the belt table for the first columns
 	 * @param context
@@ -313,7 +319,8 @@ enum ToTableConverter {
 	 * @return the converted table
 	 */
 	private static Table convertWithReuse(ExampleSet attributeExampleSet, SimpleExampleSet simpleExampleSet,
-										  ColumnarExampleTable additionalColumns, Table table, ConcurrencyContext context) {
+										  ConvertOnWriteExampleTable exampleTable, TypedExampleTable additionalColumns,
+										  Table table, ConcurrencyContext context) {
 		int width = attributeExampleSet.getAttributes().allSize();
 		String[] labels = new String[width];
 		Column[] columns = new Column[width];
@@ -327,19 +334,35 @@ enum ToTableConverter {
 			Attribute attribute = next.getAttribute();
 			int index = attribute.getTableIndex();
 
-			if (attributeNotSafe(attribute)) {
+			if (attributeNotSafe(attribute) || !isWrappedColumn(index, table, additionalColumns, exampleTable)) {
 				// must copy column sequentially
 				createDataAndStoreType(simpleExampleSet, simpleExampleSet.size(), columns, newIndex, attribute, metaData);
 			} else {
-				if (index < table.width()) {
+				if (index < table.width() && exampleTable.isModified(index)) {
+					// column is part of the old table but was written, create callable to copy the written values
+					columnCallables.add(createTableCallablesAndStoreType(table.height(), metaData, exampleTable,
+							attribute, columns, newIndex));
+				} else if (index < table.width()) {
 					// column is part of the old table, reuse it
 					reuseColumn(table, columns, attribute, newIndex, metaData, index);
+				} else if (additionalColumns == null) {
+					// the table was converted and the added column is part of the converted table, create callable
+					// to copy it
+					columnCallables.add(createTableCallablesAndStoreType(table.height(), metaData, exampleTable,
+							attribute, columns, newIndex));
 				} else {
-					// column is part of the newColumns table, create callable to copy it
+					// column is part of the newColumns table, hand over its data if possible or create callable to
+					// copy it
 					Attribute shiftedAttribute = (Attribute) attribute.clone();
 					shiftedAttribute.setTableIndex(shiftedAttribute.getTableIndex() - table.width());
-					columnCallables.add(createTableCallablesAndStoreType(table.height(), metaData, additionalColumns,
-							shiftedAttribute, columns, newIndex));
+					Column column = additionalColumns.toBeltColumn(shiftedAttribute);
+					if (column != null) {
+						columns[newIndex] = column;
+						storeType(metaData, attribute);
+					} else {
+						columnCallables.add(createTableCallablesAndStoreType(table.height(), metaData,
+								additionalColumns, shiftedAttribute, columns, newIndex));
+					}
 				}
 			}
 
@@ -363,6 +386,27 @@ enum ToTableConverter {
 		return new Table(columns, labels, metaData);
 	}
 
+	/**
+	 * Checks whether the table index refers to a column of the belt table or to an existing column of the additional
+	 * columns. If there are no additional columns because the example table was converted, added columns are looked up
+	 * in the example table.
+	 */
+	private static boolean isWrappedColumn(int index, Table table, TypedExampleTable additionalColumns,
+										   ExampleTable exampleTable) {
+		if (index < 0) {
+			return false;
+		}
+		if (index < table.width()) {
+			return true;
+		}
+		if (additionalColumns == null) {
+			return index < exampleTable.getNumberOfAttributes() && exampleTable.getAttribute(index) != null;
+		}
+		int shiftedIndex = index - table.width();
+		return shiftedIndex < additionalColumns.getNumberOfAttributes()
+				&& additionalColumns.getAttribute(shiftedIndex) != null;
+	}
+
 	/**
 	 * Copies the column at position table index from the table and stores it at position index in the columns array.
 	 * Stores the type if necessary in the meta data.
@@ -0,0 +1,540 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.rapidminer.belt.column.BooleanDictionary;
+import com.rapidminer.belt.column.Column;
+import com.rapidminer.belt.column.ColumnType;
+import com.rapidminer.belt.column.Dictionary;
+import com.rapidminer.belt.util.IntegerFormats.Format;
+import com.rapidminer.belt.util.IntegerFormats.PackedIntegers;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.table.ExampleTable;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * {@link ExampleTable} that stores the values of every column in the format of the matching belt column: nominal
+ * values as int category indices, binominal values as one byte category index per row and all other values as
+ * doubles. Used for the columns added to a {@link ConvertOnWriteExampleTable}. When converting back to belt, copies
+ * of the arrays of real and nominal columns are wrapped into belt columns via {@link #toBeltColumn(Attribute)}
+ * without any conversion, while writes to the arrays need no synchronization. Columns can also be
+ * created with all their values at once, see {@link #newTypedColumn(Attribute, double[])} and {@link
+ * #newTypedColumn(Attribute, Column)}. A belt column added this way is reused as it is until the first write.
+ *
+ * <p>If a spill threshold is set, columns added while the used heap is above this fraction of the maximal heap are
+ * stored in a {@link MappedColumn} instead. Those are always copied when converting back to belt.
+ *
+ * @since 1.0.2
+ */
+final class TypedExampleTable extends AbstractColumnExampleTable {
+
+	private static final long serialVersionUID = 4160938315829730846L;
+
+	/**
+	 * the fraction of the maximal heap above which added columns are memory-mapped, {@code 0} if they are never
+	 * memory-mapped
+	 */
+	private final double spillThreshold;
+
+	/**
+	 * Creates a new table with a column filled with {@code 0} for every attribute. The table index of every attribute
+	 * is set to its position in the list.
+	 *
+	 * @param attributeList
+	 * 		the attributes of the table
+	 * @param height
+	 * 		the number of rows
+	 */
+	TypedExampleTable(List<Attribute> attributeList, int height) {
+		this(attributeList, height, 0);
+	}
+
+	/**
+	 * Creates a new table with a column filled with {@code 0} for every attribute. The table index of every attribute
+	 * is set to its position in the list. Columns added later are memory-mapped if the used heap is above the given
+	 * fraction of the maximal heap at that time, the columns for the attributes in the list are always on the heap.
+	 *
+	 * @param attributeList
+	 * 		the attributes of the table
+	 * @param height
+	 * 		the number of rows
+	 * @param spillThreshold
+	 * 		the fraction of the maximal heap, {@code 0} to never memory-map columns
+	 */
+	TypedExampleTable(List<Attribute> attributeList, int height, double spillThreshold) {
+		super(attributeList, height);
+		this.spillThreshold = spillThreshold;
+	}
+
+	private TypedExampleTable(Attribute[] attributes, LegacyColumn[] columns, int height, double spillThreshold) {
+		super(attributes, columns, height);
+		this.spillThreshold = spillThreshold;
+	}
+
+	/**
+	 * Creates a {@link MappedColumn} if the heap usage is above the spill threshold. Falls back to a column on the heap
+	 * if the temporary file cannot be created.
+	 */
+	@Override
+	LegacyColumn newColumn(Attribute attribute, int height) {
+		if (spillThreshold > 0 && heapUsage() > spillThreshold) {
+			try {
+				return new MappedColumn(height);
+			} catch (IOException e) {
+				// keep the column on the heap
+			}
+		}
+		return newTypedColumn(attribute, height);
+	}
+
+	@Override
+	TypedExampleTable newTable(Attribute[] attributes, LegacyColumn[] columns, int height) {
+		return new TypedExampleTable(attributes, columns, height, spillThreshold);
+	}
+
+	/**
+	 * Additionally deletes the temporary files of the memory-mapped columns that are not part of the new table.
+	 */
+	@Override
+	public TypedExampleTable columnCleanupClone(Attributes attributes) {
+		TypedExampleTable clone = (TypedExampleTable) super.columnCleanupClone(attributes);
+		int width = getNumberOfAttributes();
+		for (int i = 0; i < width; i++) {
+			LegacyColumn column = getColumn(i);
+			if (column instanceof MappedColumn
+					&& (i >= clone.getNumberOfAttributes() || clone.getColumn(i) != column)) {
+				((MappedColumn) column).release();
+			}
+		}
+		return clone;
+	}
+
+	/**
+	 * @return the used heap as fraction of the maximal heap
+	 */
+	private static double heapUsage() {
+		Runtime runtime = Runtime.getRuntime();
+		return (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+	}
+
+	/**
+	 * Creates a new column filled with {@code 0} that stores the values in the format of the matching belt column.
+	 *
+	 * @param attribute
+	 * 		the attribute to create the column for
+	 * @param height
+	 * 		the number of rows
+	 * @return a new typed column
+	 */
+	private static TypedColumn newTypedColumn(Attribute attribute, int height) {
+		if (attribute.getValueType() == Ontology.BINOMINAL) {
+			return new BinominalColumn(height);
+		}
+		if (attribute.isNominal()) {
+			return new NominalColumn(height);
+		}
+		return new RealColumn(height);
+	}
+
+	/**
+	 * Creates a column holding the given values in the format of the matching belt column. The values of numeric
+	 * attributes are not copied, so the array must not be changed afterwards.
+	 *
+	 * @param attribute
+	 * 		the attribute to create the column for
+	 * @param values
+	 * 		the legacy values, one for every row
+	 * @return a new typed column
+	 */
+	static LegacyColumn newTypedColumn(Attribute attribute, double[] values) {
+		if (!attribute.isNominal()) {
+			return new RealColumn(values);
+		}
+		TypedColumn column = newTypedColumn(attribute, values.length);
+		column.setAll(values);
+		return column;
+	}
+
+	/**
+	 * Creates a column holding the values of the given belt column. A table containing the column hands out the belt
+	 * column itself in {@link #toBeltColumn(Attribute)} as long as the values are not changed. The values of nominal
+	 * columns are added to the mapping of the attribute.
+	 *
+	 * @param attribute
+	 * 		the nominal or numeric attribute to create the column for
+	 * @param beltColumn
+	 * 		a nominal column for a nominal attribute or a real or integer column for a numeric attribute
+	 * @return a new typed column
+	 * @throws IllegalArgumentException
+	 * 		if the column type does not match the attribute
+	 */
+	static LegacyColumn newTypedColumn(Attribute attribute, Column beltColumn) {
+		Column.TypeId typeId = beltColumn.type().id();
+		TypedColumn column;
+		if (attribute.isNominal() && typeId == Column.TypeId.NOMINAL) {
+			column = newTypedColumn(attribute, beltColumn.size());
+			column.setAll(beltColumn, toLegacyLookup(attribute.getMapping(), beltColumn.getDictionary(),
+					attribute.getValueType() == Ontology.BINOMINAL));
+		} else if (attribute.isNumerical()
+				&& (typeId == Column.TypeId.REAL || typeId == Column.TypeId.INTEGER_53_BIT)) {
+			double[] data = new double[beltColumn.size()];
+			beltColumn.fill(data, 0);
+			column = new RealColumn(data);
+		} else {
+			throw new IllegalArgumentException("Column of type " + beltColumn.type() + " does not match attribute "
+					+ attribute.getName());
+		}
+		column.source = beltColumn;
+		return column;
+	}
+
+	/**
+	 * Creates a belt column from a copy of the data of the column at the table index of the attribute, if the type of
+	 * the attribute allows it.
+	 *
+	 * @param attribute
+	 * 		the attribute with the table index of the column
+	 * @return the belt column or {@code null} if the column must be converted, e.g. because it is an integer or date
+	 * column or the nominal mapping contains {@code null} or duplicate values
+	 */
+	Column toBeltColumn(Attribute attribute) {
+		LegacyColumn column = getColumn(attribute.getTableIndex());
+		if (column instanceof TypedColumn) {
+			return ((TypedColumn) column).toBeltColumn(attribute);
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the belt dictionary from the legacy mapping or returns {@code null} if the mapping contains {@code null}
+	 * or duplicate values, as in {@link ToTableConverter}.
+	 */
+	private static List<String> toDictionary(NominalMapping legacyMapping) {
+		List<String> mapping = new ArrayList<>(legacyMapping.size() + 1);
+		mapping.add(null);
+		Set<String> controlSet = new HashSet<>();
+		controlSet.add(null);
+		for (String value : legacyMapping.getValues()) {
+			if (!controlSet.add(value)) {
+				return null;
+			}
+			mapping.add(value);
+		}
+		return mapping;
+	}
+
+	/**
+	 * Creates the lookup table from the category indices of the dictionary to the legacy values of the mapping. The
+	 * dictionary values are added to the mapping, the negative value first for binominal attributes. The missing
+	 * category is mapped to {@code NaN}.
+	 */
+	private static double[] toLegacyLookup(NominalMapping mapping, Dictionary dictionary, boolean negativeFirst) {
+		double[] lookup = new double[dictionary.maximalIndex() + 1];
+		Arrays.fill(lookup, Double.NaN);
+		if (negativeFirst && dictionary.isBoolean()) {
+			if (dictionary.hasNegative()) {
+				int negativeIndex = dictionary.getNegativeIndex();
+				lookup[negativeIndex] = mapping.mapString(dictionary.get(negativeIndex));
+			}
+			if (dictionary.hasPositive()) {
+				int positiveIndex = dictionary.getPositiveIndex();
+				lookup[positiveIndex] = mapping.mapString(dictionary.get(positiveIndex));
+			}
+			return lookup;
+		}
+		for (int i = 1; i < lookup.length; i++) {
+			String value = dictionary.get(i);
+			if (value != null) {
+				lookup[i] = mapping.mapString(value);
+			}
+		}
+		return lookup;
+	}
+
+	/**
+	 * Column with a data array in the format of a belt column. When converting back to belt, a copy of the array is
+	 * handed to the belt column since the column can still be written in parallel. This way writes need no
+	 * synchronization while the belt column stays immutable.
+	 */
+	private abstract static class TypedColumn implements LegacyColumn {
+
+		private static final long serialVersionUID = -1862014306908123335L;
+
+		/**
+		 * the belt column the values were taken from, {@code null} if the values were changed since
+		 */
+		private transient volatile Column source;
+
+		/**
+		 * @return the belt column with the values of this column or {@code null} if not possible for the attribute
+		 */
+		final Column toBeltColumn(Attribute attribute) {
+			Column sourceColumn = source;
+			if (sourceColumn != null && canReuse(sourceColumn, attribute)) {
+				return sourceColumn;
+			}
+			return createBeltColumn(attribute);
+		}
+
+		/**
+		 * Forgets the belt column the values were taken from. Must be called before every write. The volatile field is
+		 * only written while it is still set, so parallel writes afterwards only read it.
+		 */
+		final void beforeWrite() {
+			if (source != null) {
+				source = null;
+			}
+		}
+
+		/**
+		 * Sets all values of the column.
+		 */
+		final void setAll(double[] values) {
+			for (int row = 0; row < values.length; row++) {
+				set(row, values[row]);
+			}
+		}
+
+		/**
+		 * Sets all values of the column to the legacy values of the category indices of the nominal belt column.
+		 */
+		final void setAll(Column column, double[] lookup) {
+			int[] categories = new int[column.size()];
+			column.fill(categories, 0);
+			for (int row = 0; row < categories.length; row++) {
+				set(row, lookup[categories[row]]);
+			}
+		}
+
+		/**
+		 * Checks whether the belt column with the same values can be used for the attribute, i.e. the attribute
+		 * would be converted into a column of the same type and with the same dictionary.
+		 */
+		boolean canReuse(Column column, Attribute attribute) {
+			return false;
+		}
+
+		/**
+		 * Creates a belt column on a copy of the data array.
+		 */
+		abstract Column createBeltColumn(Attribute attribute);
+	}
+
+	/**
+	 * Column storing the values as doubles as in a belt real column.
+	 */
+	private static final class RealColumn extends TypedColumn {
+
+		private static final long serialVersionUID = 2203556389853196421L;
+
+		private double[] data;
+
+		private RealColumn(int height) {
+			data = new double[height];
+		}
+
+		private RealColumn(double[] data) {
+			this.data = data;
+		}
+
+		@Override
+		public double get(int row) {
+			return data[row];
+		}
+
+		@Override
+		public void set(int row, double value) {
+			beforeWrite();
+			data[row] = value;
+		}
+
+		@Override
+		boolean canReuse(Column column, Attribute attribute) {
+			int valueType = attribute.getValueType();
+			if (column.type().id() == Column.TypeId.INTEGER_53_BIT) {
+				return valueType == Ontology.INTEGER;
+			}
+			return valueType == Ontology.REAL || valueType == Ontology.NUMERICAL;
+		}
+
+		@Override
+		Column createBeltColumn(Attribute attribute) {
+			int valueType = attribute.getValueType();
+			if (valueType != Ontology.REAL && valueType != Ontology.NUMERICAL) {
+				return null;
+			}
+			return ColumnAccessor.get().newNumericColumn(Column.TypeId.REAL, data.clone());
+		}
+	}
+
+	/**
+	 * Column storing the legacy category index plus one as int with {@code 0} for missing values, as in a belt nominal
+	 * column.
+	 */
+	private static final class NominalColumn extends TypedColumn {
+
+		private static final long serialVersionUID = -3190735283961380254L;
+
+		private int[] data;
+
+		private NominalColumn(int height) {
+			data = new int[height];
+			// the legacy value 0 is the category index 1
+			Arrays.fill(data, 1);
+		}
+
+		@Override
+		public double get(int row) {
+			int category = data[row];
+			return category == 0 ? Double.NaN : category - 1;
+		}
+
+		@Override
+		public void set(int row, double value) {
+			beforeWrite();
+			data[row] = Double.isNaN(value) ? 0 : (int) value + 1;
+		}
+
+		@Override
+		boolean canReuse(Column column, Attribute attribute) {
+			if (!attribute.isNominal() || attribute.getValueType() == Ontology.BINOMINAL) {
+				return false;
+			}
+			if (column.getDictionary().isBoolean()) {
+				return false;
+			}
+			List<String> dictionary = toDictionary(attribute.getMapping());
+			return dictionary != null
+					&& dictionary.equals(ColumnAccessor.get().getDictionaryList(column.getDictionary()));
+		}
+
+		@Override
+		Column createBeltColumn(Attribute attribute) {
+			if (!attribute.isNominal() || attribute.getValueType() == Ontology.BINOMINAL) {
+				return null;
+			}
+			List<String> dictionary = toDictionary(attribute.getMapping());
+			if (dictionary == null) {
+				return null;
+			}
+			return ColumnAccessor.get().newCategoricalColumn(ColumnType.NOMINAL, data.clone(), dictionary);
+		}
+	}
+
+	/**
+	 * Column storing the legacy category index plus one as byte with {@code 0} for missing values, as in a belt boolean
+	 * column.
+	 */
+	private static final class BinominalColumn extends TypedColumn {
+
+		private static final long serialVersionUID = 5640217395129563207L;
+
+		private byte[] data;
+
+		private BinominalColumn(int height) {
+			data = new byte[height];
+			// the legacy value 0 is the category index 1
+			Arrays.fill(data, (byte) 1);
+		}
+
+		@Override
+		public double get(int row) {
+			int category = data[row];
+			return category == 0 ? Double.NaN : category - 1;
+		}
+
+		@Override
+		public void set(int row, double value) {
+			beforeWrite();
+			data[row] = Double.isNaN(value) ? 0 : (byte) (value + 1);
+		}
+
+		@Override
+		boolean canReuse(Column column, Attribute attribute) {
+			Dictionary dictionary = column.getDictionary();
+			List<String> legacyDictionary = toBooleanDictionary(attribute);
+			if (legacyDictionary == null || !dictionary.isBoolean()) {
+				return false;
+			}
+			int positiveIndex = dictionary.hasPositive() ? dictionary.getPositiveIndex() : BooleanDictionary.NO_ENTRY;
+			return positiveIndex == positiveIndex(attribute.getMapping(), legacyDictionary)
+					&& legacyDictionary.equals(ColumnAccessor.get().getDictionaryList(dictionary));
+		}
+
+		@Override
+		Column createBeltColumn(Attribute attribute) {
+			List<String> dictionary = toBooleanDictionary(attribute);
+			if (dictionary == null) {
+				return null;
+			}
+			int positiveIndex = positiveIndex(attribute.getMapping(), dictionary);
+			PackedIntegers packed = new PackedIntegers(data.clone(), Format.UNSIGNED_INT8, data.length);
+			return ColumnAccessor.get().newCategoricalColumn(ColumnType.NOMINAL, packed, dictionary, positiveIndex);
+		}
+
+		/**
+		 * Creates the boolean belt dictionary from the mapping of the binominal attribute or returns {@code null} if
+		 * the attribute is not binominal or its mapping is incompatible with belt's boolean columns.
+		 */
+		private static List<String> toBooleanDictionary(Attribute attribute) {
+			if (attribute.getValueType() != Ontology.BINOMINAL) {
+				return null;
+			}
+			NominalMapping legacyMapping = attribute.getMapping();
+			String negativeString = legacyMapping.getNegativeString();
+			String positiveString = legacyMapping.getPositiveString();
+			if (positiveString != null && (negativeString == null || positiveString.equals(negativeString))) {
+				// incompatible with belt's boolean columns
+				return null;
+			}
+			List<String> dictionary = new ArrayList<>(3);
+			dictionary.add(null);
+			if (negativeString != null) {
+				dictionary.add(negativeString);
+			}
+			if (positiveString != null) {
+				dictionary.add(positiveString);
+			}
+			return dictionary;
+		}
+
+		/**
+		 * @return the positive index of the boolean dictionary created by {@link #toBooleanDictionary(Attribute)}
+		 */
+		private static int positiveIndex(NominalMapping legacyMapping, List<String> dictionary) {
+			int positiveIndex = legacyMapping.getPositiveIndex() + 1;
+			if (positiveIndex >= dictionary.size()) {
+				//there is no positive value, only a negative one
+				return BooleanDictionary.NO_ENTRY;
+			}
+			return positiveIndex;
+		}
+	}
+
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program. If not, see
+ * http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.belt.table;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+
+/**
+ * Sparse overlay of written values for one column of a {@link ConvertOnWriteExampleTable}. Maps row indices to values
+ * via open addressing on primitive arrays so that a few written cells neither need boxing nor a copy of the whole
+ * column. Rows can be read while other rows are written: writes are exclusive while reads are optimistic and only
+ * fall back to a read lock if a write happened in parallel.
+ *
+ * @since 1.0.2
+ */
+final class WriteOverlay implements Serializable {
+
+	private static final long serialVersionUID = -2753209463811052278L;
+
+	/**
+	 * marks an empty slot in the keys array
+	 */
+	private static final int EMPTY = -1;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * the current slots, replaced when growing so that rows and values of the same capacity are always read together
+	 */
+	private volatile Slots slots;
+	private volatile int size;
+
+	private final transient StampedLock lock = new StampedLock();
+
+	/**
+	 * Creates an empty overlay.
+	 */
+	WriteOverlay() {
+		this(new Slots(INITIAL_CAPACITY), 0);
+	}
+
+	/**
+	 * Copy-constructor.
+	 */
+	private WriteOverlay(Slots slots, int size) {
+		this.slots = slots;
+		this.size = size;
+	}
+
+	/**
+	 * @param row
+	 * 		the row index
+	 * @param defaultValue
+	 * 		the value to return if the row was not written
+	 * @return the value written for the row or the default value
+	 */
+	double get(int row, double defaultValue) {
+		long stamp = lock.tryOptimisticRead();
+		double value = slots.get(row, defaultValue);
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				value = slots.get(row, defaultValue);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Stores the value for the row, replacing the value written before.
+	 *
+	 * @param row
+	 * 		the row index
+	 * @param value
+	 * 		the value to store
+	 */
+	void put(int row, double value) {
+		long stamp = lock.writeLock();
+		try {
+			Slots current = slots;
+			int slot = slot(current.rows, row);
+			if (current.rows[slot] == EMPTY) {
+				if (2 * (size + 1) > current.rows.length) {
+					current = current.grow();
+					slots = current;
+					slot = slot(current.rows, row);
+				}
+				current.rows[slot] = row;
+				size++;
+			}
+			current.values[slot] = value;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * @param row
+	 * 		the row index
+	 * @return whether a value was written for the row
+	 */
+	boolean contains(int row) {
+		long stamp = lock.tryOptimisticRead();
+		boolean contains = slots.contains(row);
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				contains = slots.contains(row);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return contains;
+	}
+
+	/**
+	 * @return the number of written rows
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Writes all values of this overlay into the column.
+	 *
+	 * @param column
+	 * 		the column to write into
+	 */
+	void copyTo(LegacyColumn column) {
+		long stamp = lock.readLock();
+		try {
+			Slots current = slots;
+			for (int i = 0; i < current.rows.length; i++) {
+				if (current.rows[i] != EMPTY) {
+					column.set(current.rows[i], current.values[i]);
+				}
+			}
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * @return an independent copy of this overlay
+	 */
+	WriteOverlay copy() {
+		long stamp = lock.readLock();
+		try {
+			return new WriteOverlay(new Slots(slots.rows.clone(), slots.values.clone()), size);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Recreates the overlay since the lock is not serialized.
+	 */
+	private Object readResolve() {
+		return new WriteOverlay(slots, size);
+	}
+
+	/**
+	 * Finds the slot containing the row or the empty slot where it would be inserted, using linear probing. The length
+	 * of the array must be a power of two. Terminates even if the array is written in parallel since at most half of
+	 * the slots are used.
+	 */
+	private static int slot(int[] rows, int row) {
+		int mask = rows.length - 1;
+		// spread the bits so that consecutive rows do not form long probing chains
+		int hash = row * 0x9E3779B9;
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		while (rows[slot] != EMPTY && rows[slot] != row) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Written rows and their values at the same positions. The arrays are written in place and only replaced as a
+	 * whole when growing.
+	 */
+	private static final class Slots implements Serializable {
+
+		private static final long serialVersionUID = 4129514330452180657L;
+
+		private final int[] rows;
+		private final double[] values;
+
+		private Slots(int capacity) {
+			rows = new int[capacity];
+			Arrays.fill(rows, EMPTY);
+			values = new double[capacity];
+		}
+
+		private Slots(int[] rows, double[] values) {
+			this.rows = rows;
+			this.values = values;
+		}
+
+		private double get(int row, double defaultValue) {
+			int slot = slot(rows, row);
+			return rows[slot] == EMPTY ? defaultValue : values[slot];
+		}
+
+		private boolean contains(int row) {
+			return rows[slot(rows, row)] != EMPTY;
+		}
+
+		/**
+		 * @return new slots with double the capacity containing all written rows
+		 */
+		private Slots grow() {
+			Slots grown = new Slots(rows.length * 2);
+			for (int i = 0; i < rows.length; i++) {
+				if (rows[i] != EMPTY) {
+					int slot = slot(grown.rows, rows[i]);
+					grown.rows[slot] = rows[i];
+					grown.values[slot] = values[i];
+				}
+			}
+			return grown;
+		}
+	}
+
+}
@@ -21,8 +21,11 @@ package com.rapidminer.belt.table;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.time.Instant;
 import java.time.LocalTime;
@@ -41,6 +44,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.StreamSupport;
 
 import org.junit.BeforeClass;
@@ -972,6 +976,215 @@ public class BeltConverterTest {
 			assertArrayEquals(expected, result);
 		}
 
+		@Test
+		public void testNominalMultipleBatches() {
+			NominalBuffer buffer = Buffers.nominalBuffer(2500);
+			for (int i = 0; i < buffer.size(); i++) {
+				buffer.set(i, i % 11 == 3 ? null : "value" + (i % 13));
+			}
+			Column column = Columns.removeUnusedDictionaryValues(buffer.toColumn(),
+					Columns.CleanupOption.REMOVE, Belt.defaultContext());
+			Table table = Builders.newTableBuilder(2500).add("gaps", column)
+					.addNominal("nominal", i -> "val" + (i % 7))
+					.addBoolean("boolean", i -> i % 3 == 0 ? "A" : "B", "A")
+					.build(Belt.defaultContext());
+
+			ExampleSet set = com.rapidminer.belt.table.BeltConverter.convert(new IOTable(table), CONTEXT);
+			ExampleSet sequentialSet = com.rapidminer.belt.table.BeltConverter.convertSequentially(new IOTable(table));
+
+			String[][] expected = readTableToStringArray(table);
+			assertArrayEquals(expected, readExampleSetToStringArray(set));
+			assertArrayEquals(expected, readExampleSetToStringArray(sequentialSet));
+		}
+
+		@Test
+		public void testConvertAndRelease() {
+			NominalBuffer buffer = Buffers.nominalBuffer(112);
+			for (int i = 0; i < buffer.size(); i++) {
+				buffer.set(i, i % 3 == 1 ? null : "value" + (i % 5));
+			}
+			Column gapColumn = Columns.removeUnusedDictionaryValues(buffer.toColumn(),
+					Columns.CleanupOption.REMOVE, Belt.defaultContext());
+			TableBuilder builder = Builders.newTableBuilder(112).addReal("real", i -> 3 * i / 5.0)
+					.addInt53Bit("int", i -> 5 * i)
+					.add("nominal", gapColumn)
+					.addBoolean("boolean", i -> i % 2 == 0 ? "A" : "B", "A")
+					.addDateTime("date-time", i -> Instant.ofEpochMilli(1000L * i))
+					.addTime("time", i -> LocalTime.ofSecondOfDay(i));
+			builder.addMetaData("int", ColumnRole.ID);
+			builder.addMetaData("boolean", ColumnRole.LABEL);
+			Table table = builder.build(Belt.defaultContext());
+
+			ExampleSet expected = com.rapidminer.belt.table.BeltConverter.convert(new IOTable(table), CONTEXT);
+			AtomicReference<IOTable> holder = new AtomicReference<>(new IOTable(table));
+			ExampleSet set = com.rapidminer.belt.table.BeltConverter.convertAndRelease(holder, CONTEXT);
+
+			assertNull(holder.get());
+			assertArrayEquals(readExampleSetToArray(expected), readExampleSetToArray(set));
+			// the table itself must not be changed by releasing the columns
+			for (int i = 0; i < table.width(); i++) {
+				assertNotNull(table.column(i));
+			}
+			assertArrayEquals(readExampleSetToArray(expected), readExampleSetToArray(
+					com.rapidminer.belt.table.BeltConverter.convert(new IOTable(table), CONTEXT)));
+			assertArrayEquals(readExampleSetToStringArray(expected), readExampleSetToStringArray(set));
+			Iterable<AttributeRole> expectedRoles = () -> expected.getAttributes().allAttributeRoles();
+			Iterable<AttributeRole> roles = () -> set.getAttributes().allAttributeRoles();
+			assertArrayEquals(StreamSupport.stream(expectedRoles.spliterator(), false)
+							.map(role -> role.getAttribute().getName() + ":" + role.getSpecialName()).toArray(),
+					StreamSupport.stream(roles.spliterator(), false)
+							.map(role -> role.getAttribute().getName() + ":" + role.getSpecialName()).toArray());
+			Attribute label = set.getAttributes().getLabel();
+			Attribute expectedLabel = expected.getAttributes().getLabel();
+			for (int i = 0; i < set.size(); i++) {
+				assertEquals(expected.getExample(i).getValueAsString(expectedLabel),
+						set.getExample(i).getValueAsString(label));
+			}
+		}
+
+		@Test
+		public void testConvertOffHeap() {
+			NominalBuffer buffer = Buffers.nominalBuffer(112);
+			for (int i = 0; i < buffer.size(); i++) {
+				buffer.set(i, i % 3 == 1 ? null : "value" + (i % 5));
+			}
+			TableBuilder builder = Builders.newTableBuilder(112).addReal("real", i -> 3 * i / 5.0)
+					.addInt53Bit("int", i -> 5 * i)
+					.add("nominal", buffer.toColumn())
+					.addBoolean("boolean", i -> i % 2 == 0 ? "A" : "B", "A")
+					.addDateTime("date-time", i -> Instant.ofEpochMilli(1000L * i))
+					.addTime("time", i -> LocalTime.ofSecondOfDay(i));
+			builder.addMetaData("boolean", ColumnRole.LABEL);
+			Table table = builder.build(Belt.defaultContext());
+
+			ExampleSet expected = com.rapidminer.belt.table.BeltConverter.convert(new IOTable(table), CONTEXT);
+			ExampleSet set = com.rapidminer.belt.table.BeltConverter.convertOffHeap(new IOTable(table), CONTEXT);
+
+			assertTrue(set.getExampleTable() instanceof OffHeapExampleTable);
+			assertArrayEquals(readExampleSetToArray(expected), readExampleSetToArray(set));
+			assertArrayEquals(readExampleSetToStringArray(expected), readExampleSetToStringArray(set));
+			assertEquals(expected.getAttributes().getLabel().getName(), set.getAttributes().getLabel().getName());
+		}
+
+		@Test
+		public void testOffHeapAddRemove() {
+			Table table = Builders.newTableBuilder(11).addReal("real", i -> 3 * i / 5.0)
+					.addInt53Bit("int", i -> 5 * i)
+					.build(Belt.defaultContext());
+			ExampleSet set = com.rapidminer.belt.table.BeltConverter.convertOffHeap(new IOTable(table), CONTEXT);
+
+			Attribute added = AttributeFactory.createAttribute("added", Ontology.REAL);
+			set.getExampleTable().addAttribute(added);
+			set.getAttributes().addRegular(added);
+			assertEquals(2, added.getTableIndex());
+			for (Example example : set) {
+				assertEquals(0, example.getValue(added), 0);
+				example.setValue(added, example.getValue(set.getAttributes().get("int")) + 1);
+			}
+
+			Attribute real = set.getAttributes().get("real");
+			set.getAttributes().remove(real);
+			set.getExampleTable().removeAttribute(real);
+			assertEquals(2, set.getExampleTable().getAttributeCount());
+			Attribute refill = AttributeFactory.createAttribute("refill", Ontology.REAL);
+			set.getExampleTable().addAttribute(refill);
+			assertEquals(0, refill.getTableIndex());
+
+			int row = 0;
+			for (Example example : set) {
+				assertEquals(5 * row + 1, example.getValue(added), 0);
+				row++;
+			}
+		}
+
+		@Test
+		public void testOffHeapCloseAfterCleanup() {
+			Table table = Builders.newTableBuilder(11).addReal("real", i -> 3 * i / 5.0)
+					.addInt53Bit("int", i -> 5 * i)
+					.build(Belt.defaultContext());
+			ExampleSet set = com.rapidminer.belt.table.BeltConverter.convertOffHeap(new IOTable(table), CONTEXT);
+			OffHeapExampleTable exampleTable = (OffHeapExampleTable) set.getExampleTable();
+
+			set.getAttributes().remove(set.getAttributes().get("real"));
+			OffHeapExampleTable cleaned = exampleTable.columnCleanupClone(set.getAttributes());
+			// the shared column stays readable in the clone after the original table freed its columns
+			exampleTable.close();
+			assertEquals(0, exampleTable.getAttributeCount());
+			Attribute integer = set.getAttributes().get("int");
+			for (int row = 0; row < cleaned.size(); row++) {
+				assertEquals(5 * row, cleaned.getDataRow(row).get(integer), 0);
+			}
+			cleaned.close();
+			assertEquals(0, cleaned.getAttributeCount());
+		}
+
+		@Test
+		public void testConvertCompact() {
+			NominalBuffer buffer = Buffers.nominalBuffer(112);
+			for (int i = 0; i < buffer.size(); i++) {
+				buffer.set(i, i % 3 == 1 ? null : "value" + (i % 5));
+			}
+			TableBuilder builder = Builders.newTableBuilder(112).addReal("real", i -> 3 * i / 5.0)
+					.addInt53Bit("int", i -> i % 7 == 0 ? Double.NaN : 5 * i)
+					.add("nominal", buffer.toColumn())
+					.addBoolean("boolean", i -> i % 2 == 0 ? "A" : "B", "A")
+					.addDateTime("date-time", i -> Instant.ofEpochMilli(1000L * i))
+					.addTime("time", i -> LocalTime.ofSecondOfDay(i));
+			builder.addMetaData("boolean", ColumnRole.LABEL);
+			Table table = builder.build(Belt.defaultContext());
+
+			ExampleSet expected = com.rapidminer.belt.table.BeltConverter.convert(new IOTable(table), CONTEXT);
+			ExampleSet set = com.rapidminer.belt.table.BeltConverter.convertCompact(new IOTable(table), CONTEXT);
+
+			assertTrue(set.getExampleTable() instanceof CompactExampleTable);
+			assertArrayEquals(readExampleSetToArray(expected), readExampleSetToArray(set));
+			assertArrayEquals(readExampleSetToStringArray(expected), readExampleSetToStringArray(set));
+			assertEquals(expected.getAttributes().getLabel().getName(), set.getAttributes().getLabel().getName());
+		}
+
+		@Test
+		public void testCompactWidening() {
+			Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+			Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+			Attribute date = AttributeFactory.createAttribute("date", Ontology.DATE_TIME);
+			CompactExampleTable table = new CompactExampleTable(Arrays.asList(nominal, integer, date), 5);
+			double[][] values = {{0, 1, 127, -0.0, Double.NaN}, {-128, 1e10, 2.5, Integer.MIN_VALUE, Double.NaN},
+					{Long.MIN_VALUE, 1.5, -0.0, 1e300, Double.NaN}};
+			Attribute[] attributes = {nominal, integer, date};
+			for (int column = 0; column < values.length; column++) {
+				for (int row = 0; row < values[column].length; row++) {
+					table.getDataRow(row).set(attributes[column], values[column][row]);
+				}
+			}
+			for (int column = 0; column < values.length; column++) {
+				for (int row = 0; row < values[column].length; row++) {
+					double value = table.getDataRow(row).get(attributes[column]);
+					assertEquals(Double.doubleToLongBits(values[column][row]), Double.doubleToLongBits(value));
+				}
+			}
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void testConvertAndReleaseEmptyHolder() {
+			com.rapidminer.belt.table.BeltConverter.convertAndRelease(new AtomicReference<>(), CONTEXT);
+		}
+
+		@Test
+		public void testConvertAndReleaseAdvancedColumns() {
+			Table table = Builders.newTableBuilder(11).addReal("real", i -> 3 * i / 5.0)
+					.addTextset("textset", i -> new StringSet(Collections.singleton("val" + i)))
+					.build(Belt.defaultContext());
+			IOTable tableObject = new IOTable(table);
+			AtomicReference<IOTable> holder = new AtomicReference<>(tableObject);
+			try {
+				com.rapidminer.belt.table.BeltConverter.convertAndRelease(holder, CONTEXT);
+				fail("advanced column must not be converted");
+			} catch (BeltConverter.ConversionException e) {
+				// the caller still owns the table
+				assertSame(tableObject, holder.get());
+			}
+		}
+
 		@Test
 		public void testBinominal() {
 			NominalBuffer buffer = Buffers.nominalBuffer(112, 2);
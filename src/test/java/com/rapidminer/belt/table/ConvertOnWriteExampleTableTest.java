@@ -18,19 +18,30 @@
  */
 package com.rapidminer.belt.table;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.NotSerializableException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -56,6 +67,16 @@ import org.junit.runners.MethodSorters;
 import org.junit.runners.Parameterized;
 
 import com.rapidminer.adaption.belt.IOTable;
+import com.rapidminer.belt.buffer.Buffers;
+import com.rapidminer.belt.buffer.NominalBuffer;
+import com.rapidminer.belt.column.Column;
+import com.rapidminer.belt.column.type.StringSet;
+import com.rapidminer.belt.reader.NumericReader;
+import com.rapidminer.belt.reader.ObjectReader;
+import com.rapidminer.belt.reader.Readers;
+import com.rapidminer.belt.util.Belt;
+import com.rapidminer.belt.util.ColumnMetaData;
+import com.rapidminer.belt.util.ColumnRole;
 import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.core.concurrency.ExecutionStoppedException;
 import com.rapidminer.example.Attribute;
@@ -63,6 +84,8 @@ import com.rapidminer.example.AttributeRole;
 import com.rapidminer.example.Attributes;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.SimpleAttributes;
+import com.rapidminer.example.set.SimpleExampleSet;
 import com.rapidminer.example.table.AttributeFactory;
 import com.rapidminer.example.table.ExampleTable;
 import com.rapidminer.example.utils.ExampleSets;
@@ -445,6 +468,218 @@ public class ConvertOnWriteExampleTableTest {
 			RapidAssert.assertEquals(set, view);
 		}
 
+		@Test
+		public void testAddedAttributesAreCopies() throws OperatorException {
+			Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+			ExampleSet set = ExampleSets.from(Collections.singletonList(real)).withBlankSize(10)
+					.withColumnFiller(real, i -> i).build();
+			IOTable table = BeltConverter.convert(set, CONTEXT);
+			ExampleTable view = TableViewCreator.INSTANCE.convertOnWriteView(table, true).getExampleTable();
+
+			view.addAttribute(AttributeFactory.createAttribute("added", Ontology.NUMERICAL));
+			int index = view.findAttribute("added").getTableIndex();
+			view.getAttribute(index).setName("changed");
+			view.findAttribute("added").setName("changed");
+			view.getAttributes()[index].setName("changed");
+
+			assertEquals("added", view.getAttribute(index).getName());
+			assertEquals("added", view.findAttribute("added").getName());
+			assertEquals("added", view.getAttributes()[index].getName());
+			assertNotSame(view.getAttribute(index), view.getAttribute(index));
+		}
+
+		@Test
+		public void testAddColumnAndConvertBack() {
+			Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+			ExampleSet set = ExampleSets.from(Collections.singletonList(real)).withBlankSize(150)
+					.withColumnFiller(real, i -> Math.random() > 0.7 ? Double.NaN : 42 + Math.random())
+					.build();
+			IOTable table = BeltConverter.convert(set, CONTEXT);
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(table, true);
+
+			double[] confidences = new double[set.size()];
+			NominalBuffer buffer = Buffers.nominalBuffer(set.size());
+			for (int i = 0; i < confidences.length; i++) {
+				confidences[i] = i % 7 == 0 ? Double.NaN : i / 150.0;
+				buffer.set(i, i % 5 == 0 ? null : "value" + i % 3);
+			}
+			Column predictions = buffer.toColumn();
+
+			Attribute confidence = AttributeFactory.createAttribute("confidence", Ontology.REAL);
+			Attribute prediction = AttributeFactory.createAttribute("prediction", Ontology.NOMINAL);
+			BeltConverter.addColumn(set, confidence, confidences.clone());
+			BeltConverter.addColumn(set, prediction, predictions);
+			BeltConverter.addColumn(view, (Attribute) confidence.clone(), confidences);
+			BeltConverter.addColumn(view, (Attribute) prediction.clone(), predictions);
+			RapidAssert.assertEquals(set, view);
+
+			Table converted = BeltConverter.convert(view, CONTEXT).getTable();
+			assertSame(predictions, converted.column("prediction"));
+			RapidAssert.assertEquals(set, BeltConverter.convert(new IOTable(converted), CONTEXT));
+
+			// after a write, the column must be copied
+			view.getExample(3).setValue(view.getAttributes().get("prediction"), Double.NaN);
+			Table convertedAgain = BeltConverter.convert(view, CONTEXT).getTable();
+			assertNotSame(predictions, convertedAgain.column("prediction"));
+			RapidAssert.assertEquals(view, BeltConverter.convert(new IOTable(convertedAgain), CONTEXT));
+		}
+
+		@Test
+		public void testAddBinominalColumnAndConvertBack() {
+			Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+			ExampleSet set = ExampleSets.from(Collections.singletonList(real)).withBlankSize(150).build();
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(BeltConverter.convert(set, CONTEXT), true);
+
+			NominalBuffer buffer = Buffers.nominalBuffer(set.size(), 2);
+			for (int i = 0; i < set.size(); i++) {
+				buffer.set(i, i % 7 == 0 ? null : i % 3 == 0 ? "yes" : "no");
+			}
+			buffer.set(0, "no");
+			Column flags = buffer.toBooleanColumn("yes");
+			BeltConverter.addColumn(view, AttributeFactory.createAttribute("flag", Ontology.BINOMINAL), flags);
+
+			Table converted = BeltConverter.convert(view, CONTEXT).getTable();
+			assertSame(flags, converted.column("flag"));
+			RapidAssert.assertEquals(view, BeltConverter.convert(new IOTable(converted), CONTEXT));
+
+			// after a write, the column must be copied
+			view.getExample(3).setValue(view.getAttributes().get("flag"), Double.NaN);
+			Table convertedAgain = BeltConverter.convert(view, CONTEXT).getTable();
+			assertNotSame(flags, convertedAgain.column("flag"));
+			RapidAssert.assertEquals(view, BeltConverter.convert(new IOTable(convertedAgain), CONTEXT));
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void testAddColumnWrongSize() {
+			Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+			ExampleSet set = ExampleSets.from(Collections.singletonList(real)).withBlankSize(150).build();
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(BeltConverter.convert(set, CONTEXT), true);
+			BeltConverter.addColumn(view, AttributeFactory.createAttribute("new", Ontology.REAL), new double[149]);
+		}
+
+		@Test
+		public void testAddTypedAndConvertBack() {
+			Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+			Attribute numeric = AttributeFactory.createAttribute("numeric", Ontology.NUMERICAL);
+			Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+			Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+			Attribute binominal = AttributeFactory.createAttribute("binominal", Ontology.BINOMINAL);
+			ExampleSet set = ExampleSets.from(Collections.singletonList(real)).withBlankSize(150)
+					.withColumnFiller(real, i -> Math.random() > 0.7 ? Double.NaN : 42 + Math.random())
+					.build();
+			IOTable table = BeltConverter.convert(set, CONTEXT);
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(table, true);
+
+			List<Attribute> added = Arrays.asList(numeric, integer, nominal, binominal);
+			for (Attribute attribute : added) {
+				Attribute clone = (Attribute) attribute.clone();
+				view.getExampleTable().addAttribute(clone);
+				view.getAttributes().addRegular(clone);
+				set.getExampleTable().addAttribute(attribute);
+				set.getAttributes().addRegular(attribute);
+			}
+			Random random = new Random();
+			for (int i = 0; i < set.size(); i++) {
+				for (Attribute attribute : added) {
+					Attribute viewAttribute = view.getAttributes().get(attribute.getName());
+					boolean missing = random.nextDouble() > 0.8;
+					if (attribute.isNominal()) {
+						String value = missing ? null : attribute == binominal ? random.nextBoolean() ? "yes" : "no"
+								: "value" + random.nextInt(5);
+						set.getExample(i).setValue(attribute, value);
+						view.getExample(i).setValue(viewAttribute, value);
+					} else {
+						double value = missing ? Double.NaN : random.nextInt(100);
+						set.getExample(i).setValue(attribute, value);
+						view.getExample(i).setValue(viewAttribute, value);
+					}
+				}
+			}
+			RapidAssert.assertEquals(set, view);
+
+			IOTable converted = BeltConverter.convert(view, CONTEXT);
+			ExampleSet expected = MaterializeDataInMemory.materializeExampleSet(set);
+			RapidAssert.assertEquals(expected, BeltConverter.convert(converted, CONTEXT));
+
+			// writing into the view must not change the converted belt table
+			for (Attribute attribute : added) {
+				view.getExample(7).setValue(view.getAttributes().get(attribute.getName()), Double.NaN);
+				set.getExample(7).setValue(attribute, Double.NaN);
+			}
+			RapidAssert.assertEquals(expected, BeltConverter.convert(converted, CONTEXT));
+			RapidAssert.assertEquals(set, view);
+		}
+
+		@Test
+		public void testAddSpilledAndConvertBack() {
+			Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+			Attribute numeric = AttributeFactory.createAttribute("numeric", Ontology.NUMERICAL);
+			Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+			ExampleSet set = ExampleSets.from(Collections.singletonList(real)).withBlankSize(150)
+					.withColumnFiller(real, i -> Math.random() > 0.7 ? Double.NaN : 42 + Math.random())
+					.build();
+			IOTable table = BeltConverter.convert(set, CONTEXT);
+
+			ExampleSet view;
+			System.setProperty(ConvertOnWriteExampleTable.PROPERTY_SPILL_THRESHOLD, "1e-9");
+			try {
+				view = TableViewCreator.INSTANCE.convertOnWriteView(table, true);
+				for (Attribute attribute : Arrays.asList(numeric, nominal)) {
+					Attribute clone = (Attribute) attribute.clone();
+					view.getExampleTable().addAttribute(clone);
+					view.getAttributes().addRegular(clone);
+					set.getExampleTable().addAttribute(attribute);
+					set.getAttributes().addRegular(attribute);
+				}
+			} finally {
+				System.clearProperty(ConvertOnWriteExampleTable.PROPERTY_SPILL_THRESHOLD);
+			}
+			TypedExampleTable newColumns = ((ConvertOnWriteExampleTable) view.getExampleTable()).getNewColumns();
+			assertTrue(newColumns.getColumn(0) instanceof MappedColumn);
+			assertTrue(newColumns.getColumn(1) instanceof MappedColumn);
+
+			Attribute viewNumeric = view.getAttributes().get(numeric.getName());
+			Attribute viewNominal = view.getAttributes().get(nominal.getName());
+			for (int i = 0; i < set.size(); i++) {
+				double value = i % 7 == 0 ? Double.NaN : i * 0.5;
+				set.getExample(i).setValue(numeric, value);
+				view.getExample(i).setValue(viewNumeric, value);
+				String nominalValue = i % 5 == 0 ? null : "value" + i % 3;
+				set.getExample(i).setValue(nominal, nominalValue);
+				view.getExample(i).setValue(viewNominal, nominalValue);
+			}
+			RapidAssert.assertEquals(set, view);
+
+			view.getAttributes().remove(viewNumeric);
+			view.cleanup();
+			set.getAttributes().remove(numeric);
+			set.cleanup();
+			RapidAssert.assertEquals(set, view);
+
+			ExampleSet expected = MaterializeDataInMemory.materializeExampleSet(set);
+			RapidAssert.assertEquals(expected, BeltConverter.convert(BeltConverter.convert(view, CONTEXT), CONTEXT));
+		}
+
+		@Test
+		public void testTemporaryFileReaper() throws IOException, InterruptedException {
+			Path released = Files.createTempFile("belt-test-", ".tmp");
+			Object owner = new Object();
+			assertTrue(TemporaryFileReaper.register(owner, released).delete());
+			assertFalse(Files.exists(released));
+
+			Path collected = Files.createTempFile("belt-test-", ".tmp");
+			TemporaryFileReaper.register(new Object(), collected);
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (Files.exists(collected) && System.nanoTime() < deadline) {
+				System.gc();
+				Thread.sleep(10);
+				TemporaryFileReaper.deleteCollected();
+			}
+			assertFalse(Files.exists(collected));
+			// keeps the owner of the released file reachable until here
+			assertNotNull(owner);
+		}
+
 		@Test
 		public void testAddAndSetAndCleanup() {
 			Attribute numeric = AttributeFactory.createAttribute("numeric", Ontology.NUMERICAL);
@@ -521,6 +756,93 @@ public class ConvertOnWriteExampleTableTest {
 			RapidAssert.assertEquals(set, view);
 		}
 
+		@Test
+		public void testSetExistingConvertsOnlyColumn() {
+			Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+			Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+			Attribute polynominal = AttributeFactory.createAttribute("polynominal", Ontology.POLYNOMINAL);
+			for (int i = 0; i < 6; i++) {
+				polynominal.getMapping().mapString("polyValue" + i);
+			}
+			List<Attribute> attributes = Arrays.asList(real, integer, polynominal);
+			Random random = new Random();
+			ExampleSet set = ExampleSets.from(attributes).withBlankSize(150)
+					.withColumnFiller(real, i -> Math.random() > 0.7 ? Double.NaN : 42 + Math.random())
+					.withColumnFiller(integer, i -> Math.random() > 0.7 ? Double.NaN : Math.round(Math.random() * 100))
+					.withColumnFiller(polynominal, i -> random.nextDouble() > 0.7 ? Double.NaN : random.nextInt(6))
+					.build();
+
+			IOTable table = BeltConverter.convert(set, CONTEXT);
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(table, true);
+			view.getExample(42).setValue(view.getAttributes().get(integer.getName()), 4242);
+			view.getExample(7).setValue(view.getAttributes().get(polynominal.getName()), "hello");
+
+			ConvertOnWriteExampleTable exampleTable = (ConvertOnWriteExampleTable) view.getExampleTable();
+			assertNotNull(exampleTable.getTable());
+			assertFalse(exampleTable.isModified(0));
+			assertTrue(exampleTable.isModified(1));
+			assertTrue(exampleTable.isModified(2));
+
+			set.getExample(42).setValue(integer, 4242);
+			set.getExample(7).setValue(polynominal, "hello");
+			RapidAssert.assertEquals(set, view);
+
+			ExampleSet backAndForth = BeltConverter.convert(BeltConverter.convert(view, CONTEXT), CONTEXT);
+			RapidAssert.assertEquals(set, backAndForth);
+
+			view.getAttributes().remove(view.getAttributes().get(real.getName()));
+			view.cleanup();
+			set.getAttributes().remove(real);
+			set.cleanup();
+			RapidAssert.assertEquals(set, view);
+
+			// removing a belt column does not convert the table and keeps the written values
+			ConvertOnWriteExampleTable cleanedTable = (ConvertOnWriteExampleTable) view.getExampleTable();
+			assertTrue(cleanedTable.isModified(1));
+			cleanedTable.removeAttribute(view.getAttributes().get(polynominal.getName()));
+			assertNotNull(cleanedTable.getTable());
+			assertFalse(cleanedTable.isModified(2));
+			assertNull(cleanedTable.getAttribute(2));
+			assertEquals(4242, view.getExample(42).getValue(view.getAttributes().get(integer.getName())), 0);
+		}
+
+		@Test
+		public void testSparseSetExistingAndConvertColumn() {
+			Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+			Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+			List<Attribute> attributes = Arrays.asList(real, integer);
+			ExampleSet set = ExampleSets.from(attributes).withBlankSize(1000)
+					.withColumnFiller(real, i -> Math.random() > 0.7 ? Double.NaN : 42 + Math.random())
+					.withColumnFiller(integer, i -> Math.random() > 0.7 ? Double.NaN : Math.round(Math.random() * 100))
+					.build();
+
+			IOTable table = BeltConverter.convert(set, CONTEXT);
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(table, true);
+			Attribute realInView = view.getAttributes().get(real.getName());
+			// fewer writes than the overlay limit of 1% of the rows
+			for (int i = 0; i < 9; i++) {
+				view.getExample(i * 97).setValue(realInView, Double.NaN);
+				set.getExample(i * 97).setValue(real, Double.NaN);
+			}
+			view.getExample(97).setValue(realInView, -1);
+			set.getExample(97).setValue(real, -1);
+
+			ConvertOnWriteExampleTable exampleTable = (ConvertOnWriteExampleTable) view.getExampleTable();
+			assertTrue(exampleTable.isModified(0));
+			assertFalse(exampleTable.isModified(1));
+			RapidAssert.assertEquals(set, view);
+			RapidAssert.assertEquals(set, BeltConverter.convert(BeltConverter.convert(view, CONTEXT), CONTEXT));
+
+			// more writes than the overlay limit convert the column
+			for (int i = 0; i < 1000; i += 3) {
+				view.getExample(i).setValue(realInView, i);
+				set.getExample(i).setValue(real, i);
+			}
+			assertNotNull(exampleTable.getTable());
+			RapidAssert.assertEquals(set, view);
+			RapidAssert.assertEquals(set, BeltConverter.convert(BeltConverter.convert(view, CONTEXT), CONTEXT));
+		}
+
 		@Test
 		public void testAddAndSetAndMaterialize() {
 			Random random = new Random();
@@ -652,6 +974,9 @@ public class ConvertOnWriteExampleTableTest {
 			view.getExampleTable().removeAttribute(integerInView);
 			view.getExampleTable().removeAttribute(binominalInView);
 			view.getExampleTable().removeAttribute(dateInView);
+			// removing belt columns does not convert the table
+			assertNotNull(((ConvertOnWriteExampleTable) view.getExampleTable()).getTable());
+			assertEquals(attributes.size() - 3, view.getExampleTable().getAttributeCount());
 
 			Attributes setAttributes = set.getAttributes();
 			setAttributes.remove(integer);
@@ -850,6 +1175,266 @@ public class ConvertOnWriteExampleTableTest {
 			RapidAssert.assertEquals(set, (ExampleSet) deserialized);
 		}
 
+		@Test
+		public void testSerializationWithoutConvert() throws IOException, ClassNotFoundException {
+			Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+			Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+			Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+			Attribute binominal = AttributeFactory.createAttribute("binominal", Ontology.BINOMINAL);
+			Attribute dateTime = AttributeFactory.createAttribute("dateTime", Ontology.DATE_TIME);
+			Attribute removed = AttributeFactory.createAttribute("removed", Ontology.REAL);
+			for (int i = 0; i < 300; i++) {
+				nominal.getMapping().mapString("nominalValue" + i);
+			}
+			for (int i = 0; i < 2; i++) {
+				binominal.getMapping().mapString("binominalValue" + i);
+			}
+			List<Attribute> attributes = Arrays.asList(real, integer, nominal, binominal, dateTime, removed);
+			Random random = new Random();
+			ExampleSet set = ExampleSets.from(attributes).withBlankSize(1000)
+					.withColumnFiller(real, i -> random.nextDouble() > 0.7 ? Double.NaN : 42 + random.nextDouble())
+					.withColumnFiller(integer, i -> random.nextDouble() > 0.7 ? Double.NaN : random.nextInt(100))
+					.withColumnFiller(nominal, i -> random.nextDouble() > 0.7 ? Double.NaN : random.nextInt(300))
+					.withColumnFiller(binominal, i -> random.nextDouble() > 0.7 ? Double.NaN : random.nextInt(2))
+					.withColumnFiller(dateTime, i -> random.nextDouble() > 0.7 ? Double.NaN :
+							1_600_000_000_000L + random.nextInt(1_000_000) * 1000L + random.nextInt(1000))
+					.withColumnFiller(removed, i -> random.nextDouble())
+					.withRole(integer, Attributes.LABEL_NAME)
+					.build();
+
+			IOTable table = BeltConverter.convert(set, CONTEXT);
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(table, true);
+
+			// sparse write into one column, dense write into another, one removed and one new column
+			view.getExample(42).setValue(view.getAttributes().get("real"), 42);
+			set.getExample(42).setValue(real, 42);
+			for (int row = 0; row < view.size(); row += 2) {
+				view.getExample(row).setValue(view.getAttributes().getLabel(), 7);
+				set.getExample(row).setValue(integer, 7);
+			}
+			view.getExampleTable().removeAttribute(view.getAttributes().get("removed"));
+			view.getAttributes().remove(view.getAttributes().get("removed"));
+			set.getExampleTable().removeAttribute(removed);
+			set.getAttributes().remove(removed);
+			Attribute added = AttributeFactory.createAttribute("added", Ontology.REAL);
+			view.getExampleTable().addAttribute(added);
+			view.getAttributes().addRegular(added);
+			Attribute addedClone = (Attribute) added.clone();
+			set.getExampleTable().addAttribute(addedClone);
+			set.getAttributes().addRegular(addedClone);
+			for (int row = 0; row < view.size(); row++) {
+				view.getExample(row).setValue(added, row / 3.0);
+				set.getExample(row).setValue(addedClone, row / 3.0);
+			}
+
+			ExampleSet deserialized = (ExampleSet) deserialize(serialize(view));
+			assertNotNull(((ConvertOnWriteExampleTable) view.getExampleTable()).getTable());
+			ConvertOnWriteExampleTable deserializedTable = (ConvertOnWriteExampleTable) deserialized.getExampleTable();
+			assertNotNull(deserializedTable.getTable());
+			assertEquals(table.getTable().getMetaData(), deserializedTable.getTable().getMetaData());
+			assertEquals(ColumnRole.LABEL, deserializedTable.getTable().getFirstMetaData("integer", ColumnRole.class));
+			RapidAssert.assertEquals(set, deserialized);
+
+			// the deserialized table can still be written and converted back
+			deserialized.getExample(3).setValue(deserialized.getAttributes().get("real"), 3);
+			set.getExample(3).setValue(real, 3);
+			RapidAssert.assertEquals(set, deserialized);
+			RapidAssert.assertEquals(set, BeltConverter.convert(BeltConverter.convert(deserialized, CONTEXT), CONTEXT));
+		}
+
+		@Test
+		public void testSerializeColumnsInParallel() throws IOException, ClassNotFoundException {
+			// several blocks per column and a round that ends inside a column
+			int height = 5 * (1 << 16) + 17;
+			Table table = Builders.newTableBuilder(height).addReal("real", row -> row % 7 == 0 ? Double.NaN : row / 3.0)
+					.addNominal("nominal", row -> row % 5 == 0 ? null : "val" + row % 3)
+					.addReal("skipped", row -> row)
+					.addTime("time", row -> row % 11 == 0 ? null : LocalTime.ofSecondOfDay(row % 86_400))
+					.addDateTime("date-time", row -> Instant.ofEpochMilli(1000L * row))
+					.addMetaData("real", ColumnRole.LABEL)
+					.build(Belt.defaultContext());
+			boolean[] skip = {false, false, true, false, false};
+
+			ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new ObjectOutputStream(sequential)) {
+				ColumnarTableSerializer.write(table, skip, out, null);
+			}
+			ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new ObjectOutputStream(parallel)) {
+				ColumnarTableSerializer.write(table, skip, out, CONTEXT);
+			}
+			assertArrayEquals(sequential.toByteArray(), parallel.toByteArray());
+
+			Table read;
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(parallel.toByteArray()))) {
+				read = ColumnarTableSerializer.read(in);
+			}
+			assertEquals(table.getMetaData(), read.getMetaData());
+			double[] expectedReals = new double[height];
+			double[] actualReals = new double[height];
+			table.column("real").fill(expectedReals, 0);
+			read.column("real").fill(actualReals, 0);
+			assertArrayEquals(expectedReals, actualReals, 0);
+			assertEquals(Column.TypeId.NOMINAL, read.column("skipped").type().id());
+			for (String label : Arrays.asList("nominal", "time", "date-time")) {
+				ObjectReader<Object> expected = Readers.objectReader(table.column(label), Object.class);
+				ObjectReader<Object> actual = Readers.objectReader(read.column(label), Object.class);
+				for (int row = 0; row < height; row++) {
+					assertEquals(label + " row " + row, expected.read(), actual.read());
+				}
+			}
+		}
+
+		@Test(expected = NotSerializableException.class)
+		public void testSerializeNotSerializableMetaData() throws IOException {
+			Table table = Builders.newTableBuilder(10).addReal("real", row -> row)
+					.addMetaData("real", new ColumnMetaData() {
+
+						@Override
+						public String type() {
+							return "com.rapidminer.belt.meta.column.notserializable";
+						}
+
+						@Override
+						public Uniqueness uniqueness() {
+							return Uniqueness.NONE;
+						}
+					})
+					.build(Belt.defaultContext());
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(new IOTable(table), false);
+			serialize(view.getExampleTable());
+		}
+
+		@Test
+		public void testReuseAfterConvert() throws IOException {
+			Table table = Builders.newTableBuilder(150).addReal("real", row -> 3 * row / 5.0)
+					.addInt53Bit("int", row -> 5 * row)
+					.addTextset("textset", row -> new StringSet(Collections.singleton("val" + row)))
+					.build(Belt.defaultContext());
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(new IOTable(table), false);
+			// the advanced column cannot be serialized column by column, so serialization converts
+			serialize(view.getExampleTable());
+
+			ConvertOnWriteExampleTable exampleTable = (ConvertOnWriteExampleTable) view.getExampleTable();
+			assertSame(table, exampleTable.getTable());
+			assertFalse(exampleTable.isModified(0));
+			view.getExample(7).setValue(view.getAttributes().get("real"), 42);
+			assertTrue(exampleTable.isModified(0));
+			assertFalse(exampleTable.isModified(1));
+
+			Table converted = BeltConverter.convert(view, CONTEXT).getTable();
+			assertNotSame(table.column("real"), converted.column("real"));
+			double[] values = new double[converted.height()];
+			converted.column("real").fill(values, 0);
+			assertEquals(42, values[7], 0);
+			assertEquals(3 * 8 / 5.0, values[8], 0);
+			assertSame(table.column("int"), converted.column("int"));
+			assertSame(table.column("textset"), converted.column("textset"));
+		}
+
+		@Test
+		public void testReuseWithOtherAttributes() {
+			ExampleSet set = getNumericExampleSet();
+			IOTable table = BeltConverter.convert(set, CONTEXT);
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(table, true);
+
+			// attributes of a subclass, renamed and with changed roles
+			Attributes attributes = new SimpleAttributes() {
+
+				private static final long serialVersionUID = 1L;
+			};
+			for (Iterator<AttributeRole> roles = view.getAttributes().allAttributeRoles(); roles.hasNext(); ) {
+				Attribute attribute = (Attribute) roles.next().getAttribute().clone();
+				AttributeRole role = new AttributeRole(attribute);
+				if ("real".equals(attribute.getName())) {
+					attribute.setName("renamed");
+				} else if ("integer".equals(attribute.getName())) {
+					role.setSpecial(Attributes.LABEL_NAME);
+				}
+				attributes.add(role);
+			}
+			ExampleSet wrapper = new SimpleExampleSet(view.getExampleTable(), Collections.emptyMap()) {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public Attributes getAttributes() {
+					return attributes;
+				}
+			};
+
+			Table converted = BeltConverter.convert(wrapper, CONTEXT).getTable();
+			assertSame(table.getTable().column("real"), converted.column("renamed"));
+			assertSame(table.getTable().column("integer"), converted.column("integer"));
+			assertSame(table.getTable().column("date_time"), converted.column("date_time"));
+			assertEquals(ColumnRole.LABEL, converted.getFirstMetaData("integer", ColumnRole.class));
+		}
+
+		@Test
+		public void testAddedColumnsAfterConvert() throws IOException {
+			Table table = Builders.newTableBuilder(150).addInt53Bit("int", row -> 5 * row)
+					.addTextset("textset", row -> new StringSet(Collections.singleton("val" + row)))
+					.build(Belt.defaultContext());
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(new IOTable(table), false);
+			double[] addedValues = new double[table.height()];
+			Arrays.setAll(addedValues, row -> row / 3.0);
+			BeltConverter.addColumn(view, AttributeFactory.createAttribute("added", Ontology.REAL),
+					addedValues.clone());
+			// the advanced column cannot be serialized column by column, so serialization converts
+			serialize(view.getExampleTable());
+			assertNull(((ConvertOnWriteExampleTable) view.getExampleTable()).getNewColumns());
+
+			Table converted = BeltConverter.convert(view, CONTEXT).getTable();
+			double[] values = new double[converted.height()];
+			converted.column("added").fill(values, 0);
+			assertArrayEquals(addedValues, values, 0);
+			assertSame(table.column("int"), converted.column("int"));
+			assertSame(table.column("textset"), converted.column("textset"));
+		}
+
+		@Test
+		public void testConvertParallel() {
+			Attribute numeric = AttributeFactory.createAttribute("numeric", Ontology.NUMERICAL);
+			Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+			Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+			Attribute dateTime = AttributeFactory.createAttribute("date_time", Ontology.DATE_TIME);
+			Attribute time = AttributeFactory.createAttribute("time", Ontology.TIME);
+			List<Attribute> attributes = Arrays.asList(numeric, integer, nominal, dateTime, time);
+			ExampleSet set = ExampleSets.from(attributes).withBlankSize(150)
+					.withColumnFiller(numeric, i -> Math.random() > 0.7 ? Double.NaN : Math.random())
+					.withColumnFiller(integer, i -> Math.random() > 0.7 ? Double.NaN : Math.round(Math.random() * 100))
+					.withColumnFiller(nominal, i -> Math.random() > 0.7 ? Double.NaN : i % 5)
+					.withColumnFiller(dateTime,
+							i -> Math.random() > 0.7 ? Double.NaN : 1515410698d + Math.floor(Math.random() * 1000))
+					.withColumnFiller(time,
+							i -> Math.random() > 0.7 ? Double.NaN : BeltConverterTest.randomTimeMillis())
+					.build();
+			for (int i = 0; i < 5; i++) {
+				nominal.getMapping().mapString("value" + i);
+			}
+
+			IOTable table = BeltConverter.convert(set, CONTEXT);
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(table, true, CONTEXT);
+			Attribute[] viewAttributes = view.getExampleTable().getAttributes();
+			// removed columns are not converted
+			viewAttributes[1] = null;
+
+			for (ConcurrencyContext context : Arrays.asList(CONTEXT, null)) {
+				CompactExampleTable converted = FromTableConverter.convert(table.getTable(), viewAttributes.clone(),
+						context);
+				assertNull(converted.getAttribute(1));
+				for (Attribute attribute : viewAttributes) {
+					if (attribute == null) {
+						continue;
+					}
+					LegacyColumn column = converted.getColumn(attribute.getTableIndex());
+					for (int row = 0; row < view.size(); row++) {
+						assertEquals(view.getExample(row).getValue(attribute), column.get(row), 0);
+					}
+				}
+			}
+		}
+
 		@Test
 		public void testCleanupAndConvert() {
 			Attribute numeric = AttributeFactory.createAttribute("numeric", Ontology.NUMERICAL);
@@ -978,6 +1563,192 @@ public class ConvertOnWriteExampleTableTest {
 			assertEquals(set.getExampleTable().getAttributeCount(), view.getExampleTable().getAttributeCount());
 		}
 
+		@Test
+		public void testAttributeSnapshot() throws OperatorException {
+			Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+			Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+			ExampleSet set = ExampleSets.from(Arrays.asList(real, integer)).withBlankSize(15).build();
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(BeltConverter.convert(set, CONTEXT), true);
+			ExampleTable exampleTable = view.getExampleTable();
+
+			Attribute first = AttributeFactory.createAttribute("first", Ontology.REAL);
+			exampleTable.addAttribute(first);
+			Attribute second = AttributeFactory.createAttribute("second", Ontology.NOMINAL);
+			exampleTable.addAttribute(second);
+
+			// attributes of added columns are handed out as copies
+			assertNotSame(exampleTable.getAttribute(2), exampleTable.getAttribute(2));
+			assertEquals("second", exampleTable.getAttribute(3).getName());
+			assertEquals(3, exampleTable.findAttribute("second").getTableIndex());
+			assertEquals(4, exampleTable.getAttributeCount());
+
+			exampleTable.removeAttribute(first);
+			Attribute third = AttributeFactory.createAttribute("third", Ontology.REAL);
+			exampleTable.addAttribute(third);
+			assertEquals("third", exampleTable.getAttribute(2).getName());
+			assertEquals(2, exampleTable.findAttribute("third").getTableIndex());
+			assertEquals(4, exampleTable.getAttributeCount());
+			assertEquals(4, exampleTable.getAttributes().length);
+
+			// renamed attributes are found by their new name
+			exampleTable.getAttribute(0).setName("renamed");
+			assertEquals(0, exampleTable.findAttribute("renamed").getTableIndex());
+			try {
+				exampleTable.findAttribute("real");
+				fail("attribute not renamed");
+			} catch (OperatorException e) {
+				// expected
+			}
+		}
+
+		@Test
+		public void testStatistics() {
+			ConvertOnWriteStatistics statistics = new ConvertOnWriteStatistics(2);
+			statistics.conversion(ConvertOnWriteStatistics.Trigger.SET);
+			statistics.conversion(ConvertOnWriteStatistics.Trigger.SET);
+			statistics.conversion(ConvertOnWriteStatistics.Trigger.REMOVE_ATTRIBUTE);
+			statistics.conversion(ConvertOnWriteStatistics.Trigger.SERIALIZATION);
+			statistics.beltRead();
+			statistics.beltRead();
+			statistics.newColumnRead();
+			statistics.convertedRead();
+			statistics.lockWait(42);
+			statistics.lockWait(8);
+
+			assertEquals(2, statistics.getConversionsOnSet());
+			assertEquals(1, statistics.getConversionsOnRemove());
+			assertEquals(1, statistics.getConversionsOnSerialization());
+			assertEquals(2, statistics.getBeltReads());
+			assertEquals(1, statistics.getNewColumnReads());
+			assertEquals(1, statistics.getConvertedReads());
+			assertEquals(50, statistics.getLockWaitNanos());
+			// every second conversion is sampled, the latest first
+			String[] traces = statistics.getConversionTraces();
+			assertEquals(2, traces.length);
+			assertTrue(traces[0].startsWith("SERIALIZATION"));
+			assertTrue(traces[1].startsWith("SET"));
+			assertTrue(traces[1].contains("testStatistics"));
+
+			statistics.reset();
+			assertEquals(0, statistics.getConversionsOnSet());
+			assertEquals(0, statistics.getBeltReads());
+			assertEquals(0, statistics.getLockWaitNanos());
+			assertEquals(0, statistics.getConversionTraces().length);
+		}
+
+		@Test
+		public void testLazyReaders() {
+			Table table = Builders.newTableBuilder(10).addReal("real", row -> row)
+					.addTextset("textset", row -> new StringSet(Collections.singleton("val" + row)))
+					.build(Belt.defaultContext());
+			AbstractTableAccessor.LazyNumericReaders readers =
+					new AbstractTableAccessor.LazyNumericReaders(Arrays.asList(table.getColumns()), false);
+			NumericReader reader = readers.get(0);
+			assertNotNull(reader);
+			assertSame(reader, readers.get(0));
+			// advanced columns have no reader
+			assertNull(readers.get(1));
+		}
+
+		@Test
+		public void testValueCodes() {
+			Table table = Builders.newTableBuilder(10).addReal("real", row -> row)
+					.addNominal("nominal", row -> "val" + row % 3)
+					.addTime("time", row -> LocalTime.ofSecondOfDay(row))
+					.addTextset("textset", row -> new StringSet(Collections.singleton("val" + row)))
+					.build(Belt.defaultContext());
+			List<Attribute> attributes = Arrays.asList(AttributeFactory.createAttribute("real", Ontology.REAL),
+					AttributeFactory.createAttribute("nominal", Ontology.NOMINAL),
+					AttributeFactory.createAttribute("time", Ontology.TIME),
+					AttributeFactory.createAttribute("textset", Ontology.NOMINAL));
+			NumericTableAccessor accessor = new NumericTableAccessor(table, attributes, 0);
+			assertEquals(AbstractTableAccessor.NUMERIC, accessor.getValueCode(0));
+			assertEquals(AbstractTableAccessor.NOMINAL_SHIFT, accessor.getValueCode(1));
+			assertEquals(AbstractTableAccessor.TIME, accessor.getValueCode(2));
+			assertEquals(AbstractTableAccessor.ADVANCED, accessor.getValueCode(3));
+
+			Object readers = accessor.getUnbufferedReaders();
+			assertEquals(4, accessor.get(4, 0, readers), 0);
+			assertEquals(0, accessor.get(4, 3, readers), 0);
+		}
+
+		@Test
+		public void testRandomAccess() {
+			Table table = Builders.newTableBuilder(100).addReal("real", row -> row % 7 == 0 ? Double.NaN : row / 3.0)
+					.addNominal("nominal", row -> row % 5 == 0 ? null : "val" + row % 3)
+					.addBoolean("boolean", row -> row % 2 == 0 ? "yes" : "no", "yes")
+					.addTime("time", row -> LocalTime.ofSecondOfDay(row))
+					.addDateTime("date-time", row -> Instant.ofEpochMilli(1000L * row))
+					.build(Belt.defaultContext());
+			List<Integer> rows = new ArrayList<>();
+			for (int i = 0; i < table.height(); i++) {
+				rows.add(i);
+			}
+			Collections.shuffle(rows, new Random(7));
+			// read with readers and from copies of the columns as by default
+			for (String memory : Arrays.asList("0", "0.5")) {
+				System.setProperty(AbstractTableAccessor.PROPERTY_DIRECT_ACCESS_MEMORY, memory);
+				try {
+					ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(new IOTable(table), true);
+					for (Attribute attribute : view.getAttributes()) {
+						double[] expected = new double[view.size()];
+						int i = 0;
+						for (Example example : view) {
+							expected[i++] = example.getValue(attribute);
+						}
+						for (int row : rows) {
+							assertEquals(expected[row], view.getExample(row).getValue(attribute), 0);
+						}
+					}
+					if ("0.5".equals(memory)) {
+						assertTrue(DirectAccessBudget.used() > 0);
+						// keeps the copies of the view reachable until here
+						assertEquals(table.height(), view.size());
+					}
+				} finally {
+					System.clearProperty(AbstractTableAccessor.PROPERTY_DIRECT_ACCESS_MEMORY);
+				}
+			}
+		}
+
+		@Test
+		public void testEagerPreConversion() throws InterruptedException {
+			ExampleSet set = getNumericExampleSet();
+			IOTable table = BeltConverter.convert(set, CONTEXT);
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(table, true, CONTEXT,
+					TableViewCreator.PreConversion.EAGER);
+			ConvertOnWriteExampleTable exampleTable = (ConvertOnWriteExampleTable) view.getExampleTable();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (!exampleTable.isConverted() && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			assertTrue(exampleTable.isConverted());
+
+			Attribute real = view.getAttributes().get("real");
+			view.getExample(3).setValue(real, 11);
+			set.getExample(3).setValue(set.getAttributes().get("real"), 11);
+			RapidAssert.assertEquals(set, BeltConverter.convert(BeltConverter.convert(view, CONTEXT), CONTEXT));
+		}
+
+		@Test
+		public void testPreConversionOnFirstWrite() {
+			ExampleSet set = getNumericExampleSet();
+			IOTable table = BeltConverter.convert(set, CONTEXT);
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(table, true, CONTEXT,
+					TableViewCreator.PreConversion.ON_FIRST_WRITE);
+			Attribute integer = view.getAttributes().get("integer");
+			Attribute setInteger = set.getAttributes().get("integer");
+			// the writes race with the conversion of the column in the background
+			for (int i = 0; i < view.size(); i++) {
+				view.getExample(i).setValue(integer, i);
+				set.getExample(i).setValue(setInteger, i);
+			}
+			ConvertOnWriteExampleTable exampleTable = (ConvertOnWriteExampleTable) view.getExampleTable();
+			assertFalse(exampleTable.isConverted());
+			assertTrue(exampleTable.isModified(integer.getTableIndex()));
+			RapidAssert.assertEquals(set, BeltConverter.convert(BeltConverter.convert(view, CONTEXT), CONTEXT));
+		}
+
 	}
 
 	public static class Concurrency {
@@ -1278,6 +2049,325 @@ public class ConvertOnWriteExampleTableTest {
 			}
 		}
 
+		@Test
+		public void testWriteAndRemoveDuringConvert() throws InterruptedException {
+			ExecutorService executorService = Executors.newFixedThreadPool(3);
+			List<AtomicBoolean> result = new ArrayList<>();
+			for (int i = 0; i < 300; i++) {
+				CountDownLatch start = new CountDownLatch(3);
+				AtomicBoolean failed = new AtomicBoolean(false);
+				result.add(failed);
+
+				// the advanced column cannot be serialized column by column, so serialization converts
+				Table table = Builders.newTableBuilder(150).addReal("real", row -> 3 * row / 5.0)
+						.addInt53Bit("int", row -> 5 * row)
+						.addTextset("textset", row -> new StringSet(Collections.singleton("val" + row)))
+						.build(Belt.defaultContext());
+				ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(new IOTable(table), false);
+				Attribute real = view.getAttributes().get("real");
+				Attribute integer = view.getAttributes().get("int");
+
+				executorService.submit(() -> {
+					start.countDown();
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						e.printStackTrace();
+					}
+					try {
+						for (int row = 0; row < view.size(); row++) {
+							view.getExample(row).setValue(real, row);
+						}
+						for (int row = 0; row < view.size(); row++) {
+							assertEquals(row, view.getExample(row).getValue(real), 0);
+						}
+					} catch (Throwable e) {
+						e.printStackTrace();
+						failed.set(true);
+					}
+				});
+
+				executorService.submit(() -> {
+					start.countDown();
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						e.printStackTrace();
+					}
+					try {
+						view.getExampleTable().removeAttribute(integer);
+						assertNull(view.getExampleTable().getAttribute(integer.getTableIndex()));
+					} catch (Throwable e) {
+						e.printStackTrace();
+						failed.set(true);
+					}
+				});
+
+				executorService.submit(() -> {
+					start.countDown();
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						e.printStackTrace();
+					}
+					try {
+						serialize(view.getExampleTable());
+					} catch (Throwable e) {
+						e.printStackTrace();
+						failed.set(true);
+					}
+				});
+			}
+			executorService.shutdown();
+			executorService.awaitTermination(10, TimeUnit.SECONDS);
+			for (AtomicBoolean atomicBoolean : result) {
+				assertFalse(atomicBoolean.get());
+			}
+		}
+
+		@Test
+		public void testWriteNewColumnDuringConvert() throws InterruptedException {
+			ExecutorService executorService = Executors.newFixedThreadPool(2);
+			List<AtomicBoolean> result = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				CountDownLatch start = new CountDownLatch(2);
+				AtomicBoolean failed = new AtomicBoolean(false);
+				result.add(failed);
+
+				ExampleSet set = getNumericExampleSet();
+				IOTable ioTable = BeltConverter.convert(set, CONTEXT);
+				ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(ioTable, false);
+				Attribute att = AttributeFactory.createAttribute("test", Ontology.NUMERICAL);
+				view.getExampleTable().addAttribute(att);
+				view.getAttributes().addRegular(att);
+
+				executorService.submit(() -> {
+					start.countDown();
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						e.printStackTrace();
+					}
+					try {
+						for (int row = 0; row < view.size(); row++) {
+							view.getExample(row).setValue(att, row);
+						}
+						for (int row = 0; row < view.size(); row++) {
+							assertEquals(row, view.getExample(row).getValue(att), 0);
+						}
+					} catch (Throwable e) {
+						e.printStackTrace();
+						failed.set(true);
+					}
+				});
+
+				executorService.submit(() -> {
+					start.countDown();
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						e.printStackTrace();
+					}
+					try {
+						// serialization writes the table while the new column is written
+						serialize(view.getExampleTable());
+					} catch (Throwable e) {
+						e.printStackTrace();
+						failed.set(true);
+					}
+				});
+
+			}
+			executorService.shutdown();
+			executorService.awaitTermination(10, TimeUnit.SECONDS);
+			for (AtomicBoolean atomicBoolean : result) {
+				assertFalse(atomicBoolean.get());
+			}
+		}
+
+		@Test
+		public void testConcurrentWritesWhileWidening() throws InterruptedException {
+			ExecutorService executorService = Executors.newFixedThreadPool(2);
+			int height = 10_000;
+			for (int i = 0; i < 100; i++) {
+				Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+				CompactExampleTable table = new CompactExampleTable(Collections.singletonList(integer), height);
+				LegacyColumn column = table.getColumn(0);
+				CountDownLatch start = new CountDownLatch(2);
+				List<Future<?>> futures = new ArrayList<>();
+				for (int thread = 0; thread < 2; thread++) {
+					int offset = thread;
+					futures.add(executorService.submit(() -> {
+						start.countDown();
+						start.await();
+						for (int row = offset; row < height; row += 2) {
+							// the fractional values make the column switch from ints to doubles
+							column.set(row, offset == 0 ? row : row + 0.5);
+						}
+						return null;
+					}));
+				}
+				for (Future<?> future : futures) {
+					try {
+						future.get();
+					} catch (ExecutionException e) {
+						throw new AssertionError(e);
+					}
+				}
+				for (int row = 0; row < height; row++) {
+					assertEquals(row % 2 == 0 ? row : row + 0.5, column.get(row), 0);
+				}
+			}
+			executorService.shutdown();
+			executorService.awaitTermination(10, TimeUnit.SECONDS);
+		}
+
+		@Test
+		public void testConcurrentWritesAfterExclusiveWrites() throws InterruptedException {
+			ExecutorService executorService = Executors.newFixedThreadPool(2);
+			int height = 10_000;
+			Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+			Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+			CompactExampleTable table = new CompactExampleTable(Arrays.asList(nominal, integer), height);
+			table.startExclusiveWrites();
+			for (int row = 0; row < height; row++) {
+				// the nominal column switches from bytes to ints and the integer column from ints to doubles
+				table.getColumn(0).set(row, row);
+				table.getColumn(1).set(row, row % 3 == 0 ? Double.NaN : row / 4.0);
+			}
+			table.endExclusiveWrites();
+			for (int row = 0; row < height; row++) {
+				assertEquals(row, table.getColumn(0).get(row), 0);
+				assertEquals(row % 3 == 0 ? Double.NaN : row / 4.0, table.getColumn(1).get(row), 0);
+			}
+
+			LegacyColumn column = table.getColumn(0);
+			CountDownLatch start = new CountDownLatch(2);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 2; thread++) {
+				int offset = thread;
+				futures.add(executorService.submit(() -> {
+					start.countDown();
+					start.await();
+					for (int row = offset; row < height; row += 2) {
+						// the fractional values make the column switch from ints to doubles under the lock
+						column.set(row, offset == 0 ? row : row + 0.5);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					throw new AssertionError(e);
+				}
+			}
+			for (int row = 0; row < height; row++) {
+				assertEquals(row % 2 == 0 ? row : row + 0.5, column.get(row), 0);
+			}
+			executorService.shutdown();
+			executorService.awaitTermination(10, TimeUnit.SECONDS);
+		}
+
+		@Test
+		public void testConvertWhileWritingAddedColumn() throws InterruptedException, ExecutionException {
+			ExecutorService executorService = Executors.newSingleThreadExecutor();
+			Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+			ExampleSet set = ExampleSets.from(Collections.singletonList(real)).withBlankSize(1000).build();
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(BeltConverter.convert(set, CONTEXT), true);
+			Attribute added = AttributeFactory.createAttribute("added", Ontology.REAL);
+			BeltConverter.addColumn(view, added, new double[set.size()]);
+			Attribute viewAdded = view.getAttributes().get("added");
+
+			AtomicBoolean done = new AtomicBoolean();
+			Future<?> writer = executorService.submit(() -> {
+				for (int round = 1; round <= 200; round++) {
+					for (Example example : view) {
+						example.setValue(viewAdded, round);
+					}
+				}
+				done.set(true);
+			});
+			List<Column> columns = new ArrayList<>();
+			List<double[]> values = new ArrayList<>();
+			while (!done.get() && columns.size() < 100) {
+				Column column = BeltConverter.convert(view, CONTEXT).getTable().column("added");
+				double[] data = new double[column.size()];
+				column.fill(data, 0);
+				columns.add(column);
+				values.add(data);
+			}
+			writer.get();
+
+			// later writes must not change the columns handed out before
+			for (int i = 0; i < columns.size(); i++) {
+				double[] data = new double[set.size()];
+				columns.get(i).fill(data, 0);
+				assertArrayEquals(values.get(i), data, 0);
+			}
+			executorService.shutdown();
+			executorService.awaitTermination(10, TimeUnit.SECONDS);
+		}
+
+		@Test
+		public void testOverlayReadsWhileWriting() throws InterruptedException, ExecutionException {
+			ExecutorService executorService = Executors.newSingleThreadExecutor();
+			int rows = 10_000;
+			for (int i = 0; i < 20; i++) {
+				WriteOverlay overlay = new WriteOverlay();
+				AtomicBoolean done = new AtomicBoolean();
+				Future<?> writer = executorService.submit(() -> {
+					for (int row = 0; row < rows; row++) {
+						overlay.put(row, row + 0.5);
+					}
+					done.set(true);
+				});
+				Random random = new Random(i);
+				while (!done.get()) {
+					int row = random.nextInt(rows);
+					double value = overlay.get(row, -1);
+					// a row is either not written yet or has its final value, even while the overlay grows
+					if (value != -1) {
+						assertEquals(row + 0.5, value, 0);
+						assertTrue(overlay.contains(row));
+					}
+				}
+				writer.get();
+				assertEquals(rows, overlay.size());
+				for (int row = 0; row < rows; row++) {
+					assertEquals(row + 0.5, overlay.get(row, -1), 0);
+				}
+			}
+			executorService.shutdown();
+			executorService.awaitTermination(10, TimeUnit.SECONDS);
+		}
+
+		@Test
+		public void testReaderPool() throws InterruptedException {
+			ReaderPool<Object> pool = new ReaderPool<>(2);
+			Object readers = pool.get(Object::new);
+			assertSame(readers, pool.get(Object::new));
+
+			List<Object> otherReaders = Collections.synchronizedList(new ArrayList<>());
+			for (int i = 0; i < 3; i++) {
+				Thread thread = new Thread(() -> {
+					Object threadReaders = pool.get(Object::new);
+					if (threadReaders == pool.get(Object::new)) {
+						otherReaders.add(threadReaders);
+					}
+				});
+				thread.start();
+				thread.join();
+			}
+			assertEquals(3, otherReaders.size());
+			assertNotSame(otherReaders.get(0), otherReaders.get(1));
+			assertEquals(2, pool.size());
+			// the readers of this thread were read least recently and are evicted
+			assertNotSame(readers, pool.get(Object::new));
+			assertEquals(2, pool.size());
+		}
+
 		@Test
 		public void testEverything() throws InterruptedException {
 			ExecutorService executorService = Executors.newFixedThreadPool(9);
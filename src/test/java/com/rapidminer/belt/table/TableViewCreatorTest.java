@@ -24,6 +24,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -52,12 +53,16 @@ import com.rapidminer.belt.buffer.NominalBuffer;
 import com.rapidminer.belt.column.Column;
 import com.rapidminer.belt.column.ColumnType;
 import com.rapidminer.belt.column.Columns;
+import com.rapidminer.belt.column.Dictionary;
 import com.rapidminer.belt.column.type.StringSet;
+import com.rapidminer.belt.reader.ObjectReader;
+import com.rapidminer.belt.reader.Readers;
 import com.rapidminer.belt.util.Belt;
 import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.core.concurrency.ExecutionStoppedException;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.Statistics;
 import com.rapidminer.example.table.AttributeFactory;
@@ -441,6 +446,7 @@ public class TableViewCreatorTest {
 			Table table = com.rapidminer.belt.table.BeltConverter.convert(set, CONTEXT).getTable();
 			byte[] serialized = serialize(com.rapidminer.belt.table.TableViewCreator.INSTANCE.createView(table));
 			Object deserialized = deserialize(serialized);
+			assertTrue(deserialized instanceof DoubleTableWrapper);
 
 			ExampleSet deserializedES = (ExampleSet) deserialized;
 			RapidAssert.assertEquals(set, deserializedES);
@@ -473,6 +479,7 @@ public class TableViewCreatorTest {
 			Table table = com.rapidminer.belt.table.BeltConverter.convert(set, CONTEXT).getTable();
 			byte[] serialized = serialize(com.rapidminer.belt.table.TableViewCreator.INSTANCE.createView(table));
 			Object deserialized = deserialize(serialized);
+			assertTrue(deserialized instanceof DatetimeTableWrapper);
 
 			ExampleSet deserializedES = (ExampleSet) deserialized;
 			RapidAssert.assertEquals(set, deserializedES);
@@ -565,14 +572,28 @@ public class TableViewCreatorTest {
 			Column column5 = Columns.removeUnusedDictionaryValues(column4, Columns.CleanupOption.COMPACT, Belt.defaultContext());
 
 			Table table = new Table(new Column[]{column1, column2, column3, column4new, column5}, new String[]{"a", "b", "c", "d", "e"});
-			Table adjustedTable = TableViewCreator.INSTANCE.adjustDictionaries(table);
-
-			assertEquals(1, adjustedTable.column(0).getDictionary().getNegativeIndex());
-			assertEquals(1, adjustedTable.column(1).getDictionary().getNegativeIndex());
-			assertEquals(1, adjustedTable.column(3).getDictionary().getNegativeIndex());
-			assertEquals(1, adjustedTable.column(4).getDictionary().getNegativeIndex());
-			assertEquals(0, adjustedTable.column(2).getDictionary().size());
-			assertEquals(table.toString(), adjustedTable.toString());
+			ExampleSet wrapper = TableViewCreator.INSTANCE.createView(table);
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(new IOTable(table), true);
+
+			// the dictionaries are remapped on read so that binominal mappings have the negative value first
+			for (ExampleSet set : Arrays.asList(wrapper, view)) {
+				for (int i = 0; i < table.width(); i++) {
+					Column column = table.column(i);
+					Dictionary dictionary = column.getDictionary();
+					Attribute attribute = set.getAttributes().get(table.labels().get(i));
+					if (dictionary.hasNegative()) {
+						assertEquals(dictionary.get(dictionary.getNegativeIndex()), attribute.getMapping().mapIndex(0));
+					}
+					ObjectReader<String> reader = Readers.objectReader(column, String.class);
+					for (int row = 0; row < table.height(); row++) {
+						String value = reader.read();
+						Example example = set.getExample(row);
+						assertEquals(value, Double.isNaN(example.getValue(attribute)) ? null :
+								example.getValueAsString(attribute));
+					}
+				}
+			}
+			RapidAssert.assertEquals(wrapper, view);
 		}
 
 		@Test
@@ -1292,6 +1313,80 @@ public class TableViewCreatorTest {
 				assertEquals(column.getDictionary().maximalIndex(), column.getDictionary().size());
 			}
 		}
+
+		@Test
+		public void testParallelPlaceholderNegatives() {
+			NominalBuffer booleanBuffer = Buffers.nominalBuffer(100, 2);
+			for (int i = 0; i < 100; i++) {
+				booleanBuffer.set(i, i % 3 == 0 ? null : "yes");
+			}
+			Column positiveOnly = booleanBuffer.toBooleanColumn("yes");
+			Table table = Builders.newTableBuilder(100).add("boolean", positiveOnly).add("boolean2", positiveOnly)
+					.addReal("real", i -> i).add("boolean3", positiveOnly).build(Belt.defaultContext());
+
+			final Table parallel = TableViewCreator.INSTANCE.addPlaceholderNegatives(table, CONTEXT);
+			assertNotSame(table, parallel);
+			for (String label : new String[]{"boolean", "boolean2", "boolean3"}) {
+				Dictionary dictionary = parallel.column(label).getDictionary();
+				assertTrue(dictionary.hasNegative());
+				assertEquals(1, dictionary.getNegativeIndex());
+			}
+			assertSame(table.column("real"), parallel.column("real"));
+			assertEquals(table.toString(), parallel.toString());
+			final Table sequential = TableViewCreator.INSTANCE.addPlaceholderNegatives(table, null);
+			for (String label : new String[]{"boolean", "boolean2", "boolean3"}) {
+				Dictionary expected = sequential.column(label).getDictionary();
+				Dictionary actual = parallel.column(label).getDictionary();
+				assertEquals(expected.getNegativeIndex(), actual.getNegativeIndex());
+				assertEquals(expected.get(expected.getNegativeIndex()), actual.get(actual.getNegativeIndex()));
+				assertEquals(expected.get(expected.getPositiveIndex()), actual.get(actual.getPositiveIndex()));
+			}
+		}
+
+		@Test
+		public void testRemapOnRead() {
+			final NominalBuffer nominalBuffer = Buffers.nominalBuffer(100);
+			nominalBuffer.set(0, "red");
+			for (int i = 1; i <= 50; i++) {
+				nominalBuffer.set(i, "blue");
+			}
+			for (int i = 51; i < 100; i++) {
+				nominalBuffer.set(i, i % 3 == 0 ? null : "green");
+			}
+			NominalBuffer booleanBuffer = Buffers.nominalBuffer(100, 3);
+			for (int i = 0; i < 100; i++) {
+				booleanBuffer.set(i, i % 5 == 0 ? null : "value" + (i % 2));
+			}
+			Table table = Builders.newTableBuilder(100).add("nominal", nominalBuffer.toColumn())
+					.add("boolean", booleanBuffer.toBooleanColumn("value0"))
+					.build(Belt.defaultContext());
+			table = table.rows(40, 100, Belt.defaultContext());
+			table = Builders.newTableBuilder(60).add("nominal",
+					Columns.removeUnusedDictionaryValues(table.column("nominal"), Columns.CleanupOption.REMOVE,
+							Belt.defaultContext())).add("boolean", table.column("boolean")).build(Belt.defaultContext());
+			ExampleSet view = TableViewCreator.INSTANCE.convertOnWriteView(new IOTable(table), true);
+			// the full conversion compacts the dictionaries
+			ExampleSet compactedView = com.rapidminer.belt.table.BeltConverter.convert(new IOTable(table), CONTEXT);
+			ExampleSet wrapper = TableViewCreator.INSTANCE.createView(table);
+
+			// no copies of the columns
+			Table viewTable = ((ConvertOnWriteExampleTable) view.getExampleTable()).getTable();
+			assertSame(table.column(0), viewTable.column(0));
+			assertSame(table.column(1), viewTable.column(1));
+
+			for (String name : new String[]{"nominal", "boolean"}) {
+				Attribute attribute = view.getAttributes().get(name);
+				Attribute compactedAttribute = compactedView.getAttributes().get(name);
+				Attribute wrapperAttribute = wrapper.getAttributes().get(name);
+				assertEquals(compactedAttribute.getMapping().getValues(), attribute.getMapping().getValues());
+				for (int i = 0; i < view.size(); i++) {
+					assertEquals(compactedView.getExample(i).getValue(compactedAttribute),
+							view.getExample(i).getValue(attribute), 0);
+					assertEquals(compactedView.getExample(i).getValue(compactedAttribute),
+							wrapper.getExample(i).getValue(wrapperAttribute), 0);
+				}
+			}
+		}
 	}
 
 